@@ -0,0 +1,128 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.functional.FunctionalMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.tutorial.simple.functional.ReadWriteFunctions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Increments every counter of a cache with a single {@code evalMany} call, with {@code Cache.compute} for each key,
+ * and with a get followed by a put for each key.
+ * <p>
+ * Each invocation updates all the keys, so the score is the time to update {@code keys} counters. The
+ * {@code DIST_SYNC} runs join a second node to the cluster, so that half of the updates go to a remote owner.
+ * Run with {@code mvn exec:exec -Dbenchmark=BulkUpdateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.net.preferIPv4Stack=true", "-Djgroups.bind_addr=127.0.0.1"})
+public class BulkUpdateBenchmark {
+
+   @Param({"LOCAL", "DIST_SYNC"})
+   public CacheMode cacheMode;
+
+   @Param({"1000", "100000"})
+   public int keys;
+
+   DefaultCacheManager cacheManager;
+   DefaultCacheManager secondNode;
+   AdvancedCache<String, Long> cache;
+   FunctionalMap.ReadWriteMap<String, Long> readWriteMap;
+   Map<String, Long> deltas;
+
+   @Setup(Level.Trial)
+   public void setup() throws InterruptedException {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (cacheMode.isClustered()) {
+         cacheManager = new DefaultCacheManager(GlobalConfigurationBuilder.defaultClusteredBuilder().build());
+         secondNode = new DefaultCacheManager(GlobalConfigurationBuilder.defaultClusteredBuilder().build());
+         builder.clustering().cacheMode(cacheMode);
+         secondNode.defineConfiguration("counters", builder.build());
+         secondNode.getCache("counters");
+      } else {
+         cacheManager = new DefaultCacheManager();
+      }
+      cacheManager.defineConfiguration("counters", builder.build());
+      cache = cacheManager.<String, Long>getCache("counters").getAdvancedCache();
+      if (secondNode != null) {
+         awaitMembers(2);
+      }
+      readWriteMap = ReadWriteMapImpl.create(FunctionalMapImpl.create(cache));
+
+      deltas = new HashMap<>();
+      for (int i = 0; i < keys; i++) {
+         deltas.put("counter-" + i, 1L);
+      }
+   }
+
+   private void awaitMembers(int nodes) throws InterruptedException {
+      // Wait until the cache is distributed over all the nodes
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+      while (cache.getDistributionManager().getCacheTopology().getMembers().size() != nodes) {
+         if (System.nanoTime() > deadline) {
+            tearDown();
+            throw new IllegalStateException("The " + nodes + " nodes did not join the counters cache");
+         }
+         Thread.sleep(100);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cacheManager.stop();
+      if (secondNode != null) {
+         secondNode.stop();
+         secondNode = null;
+      }
+   }
+
+   @Benchmark
+   public long evalMany() {
+      return readWriteMap.evalMany(deltas, ReadWriteFunctions.<String>increment()).count();
+   }
+
+   @Benchmark
+   public long compute() {
+      long last = 0;
+      for (String key : deltas.keySet()) {
+         last = cache.compute(key, (k, v) -> v == null ? 1L : v + 1);
+      }
+      return last;
+   }
+
+   @Benchmark
+   public long getAndPut() {
+      long last = 0;
+      for (String key : deltas.keySet()) {
+         Long value = cache.get(key);
+         last = value == null ? 1L : value + 1;
+         cache.put(key, last);
+      }
+      return last;
+   }
+}
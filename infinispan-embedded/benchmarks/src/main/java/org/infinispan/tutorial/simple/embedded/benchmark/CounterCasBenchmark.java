@@ -0,0 +1,102 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.api.Storage;
+import org.infinispan.counter.api.SyncStrongCounter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Increments strong counters with a read followed by a compare-and-swap, from many threads spread over 1 to 3
+ * embedded nodes running in this JVM. Weak counters do not support conditional updates.
+ * <p>
+ * Besides throughput and latency, the {@code casSuccesses} and {@code casFailures} counters are reported: their
+ * ratio is the CAS failure rate under contention. Run with {@code mvn exec:exec -Dbenchmark=CounterCasBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.net.preferIPv4Stack=true", "-Djgroups.bind_addr=127.0.0.1"})
+@Threads(16)
+public class CounterCasBenchmark {
+
+   static final String COUNTER_NAME = "contended-cas";
+
+   @Param({"1", "2", "3"})
+   public int nodes;
+
+   @Param({"UNBOUNDED_STRONG", "BOUNDED_STRONG"})
+   public CounterType counterType;
+
+   CounterCluster cluster;
+   final AtomicInteger nextNode = new AtomicInteger();
+
+   @Setup(Level.Trial)
+   public void startCluster() throws InterruptedException {
+      cluster = new CounterCluster(nodes);
+      CounterConfiguration.Builder builder = CounterConfiguration.builder(counterType).storage(Storage.VOLATILE);
+      if (counterType == CounterType.BOUNDED_STRONG) {
+         builder.lowerBound(0).upperBound(Long.MAX_VALUE);
+      }
+      cluster.counterManager(0).defineCounter(COUNTER_NAME, builder.build());
+   }
+
+   @TearDown(Level.Trial)
+   public void stopCluster() {
+      cluster.close();
+   }
+
+   @State(Scope.Thread)
+   public static class NodeCounter {
+      SyncStrongCounter counter;
+
+      @Setup(Level.Trial)
+      public void setup(CounterCasBenchmark benchmark) {
+         int node = benchmark.nextNode.getAndIncrement() % benchmark.cluster.size();
+         counter = benchmark.cluster.counterManager(node).getStrongCounter(COUNTER_NAME).sync();
+      }
+   }
+
+   @State(Scope.Thread)
+   @AuxCounters(AuxCounters.Type.EVENTS)
+   public static class CasOutcomes {
+      public long casSuccesses;
+      public long casFailures;
+
+      @Setup(Level.Iteration)
+      public void reset() {
+         casSuccesses = 0;
+         casFailures = 0;
+      }
+   }
+
+   @Benchmark
+   public boolean compareAndSet(NodeCounter counter, CasOutcomes outcomes) {
+      long value = counter.counter.getValue();
+      if (counter.counter.compareAndSet(value, value + 1)) {
+         outcomes.casSuccesses++;
+         return true;
+      }
+      outcomes.casFailures++;
+      return false;
+   }
+}
@@ -0,0 +1,54 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.counter.EmbeddedCounterManagerFactory;
+import org.infinispan.counter.api.CounterManager;
+import org.infinispan.manager.DefaultCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cluster of embedded cache managers running in the same JVM, each with its counter manager.
+ */
+final class CounterCluster implements AutoCloseable {
+
+   private final List<DefaultCacheManager> cacheManagers = new ArrayList<>();
+   private final List<CounterManager> counterManagers = new ArrayList<>();
+
+   CounterCluster(int nodes) throws InterruptedException {
+      for (int i = 0; i < nodes; i++) {
+         GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         global.transport().nodeName("node-" + i);
+         DefaultCacheManager cacheManager = new DefaultCacheManager(global.build());
+         cacheManagers.add(cacheManager);
+         counterManagers.add(EmbeddedCounterManagerFactory.asCounterManager(cacheManager));
+      }
+      // Wait until every node sees the others
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+      while (cacheManagers.stream().anyMatch(cm -> cm.getMembers().size() != nodes)) {
+         if (System.nanoTime() > deadline) {
+            close();
+            throw new IllegalStateException("The " + nodes + " nodes did not form a cluster");
+         }
+         Thread.sleep(100);
+      }
+   }
+
+   int size() {
+      return counterManagers.size();
+   }
+
+   CounterManager counterManager(int node) {
+      return counterManagers.get(node);
+   }
+
+   @Override
+   public void close() {
+      // Stop the coordinator last
+      for (int i = cacheManagers.size() - 1; i >= 0; i--) {
+         cacheManagers.get(i).stop();
+      }
+   }
+}
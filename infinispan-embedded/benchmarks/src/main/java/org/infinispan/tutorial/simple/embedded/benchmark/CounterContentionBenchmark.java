@@ -0,0 +1,97 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.api.Storage;
+import org.infinispan.counter.api.SyncStrongCounter;
+import org.infinispan.counter.api.SyncWeakCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Increments the same counter from many threads spread over 1 to 3 embedded nodes running in this JVM, for each
+ * counter type.
+ * <p>
+ * Throughput and latency percentiles are reported for each combination. See {@link CounterCasBenchmark} for the
+ * conditional updates of strong counters. Run with {@code mvn exec:exec -Dbenchmark=CounterContentionBenchmark}, and
+ * add {@code -p nodes=1,2,4} or {@code -t 32} to change the cluster size or the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.net.preferIPv4Stack=true", "-Djgroups.bind_addr=127.0.0.1"})
+@Threads(16)
+public class CounterContentionBenchmark {
+
+   static final String COUNTER_NAME = "contended";
+
+   @Param({"1", "2", "3"})
+   public int nodes;
+
+   @Param({"UNBOUNDED_STRONG", "BOUNDED_STRONG", "WEAK"})
+   public CounterType counterType;
+
+   CounterCluster cluster;
+   final AtomicInteger nextNode = new AtomicInteger();
+
+   @Setup(Level.Trial)
+   public void startCluster() throws InterruptedException {
+      cluster = new CounterCluster(nodes);
+      CounterConfiguration.Builder builder = CounterConfiguration.builder(counterType).storage(Storage.VOLATILE);
+      if (counterType == CounterType.BOUNDED_STRONG) {
+         // Bounds are checked on every update but never reached
+         builder.lowerBound(0).upperBound(Long.MAX_VALUE);
+      }
+      cluster.counterManager(0).defineCounter(COUNTER_NAME, builder.build());
+   }
+
+   @TearDown(Level.Trial)
+   public void stopCluster() {
+      cluster.close();
+   }
+
+   /**
+    * The counter as seen from the node of the thread, threads are spread evenly over the nodes.
+    */
+   @State(Scope.Thread)
+   public static class NodeCounter {
+      SyncStrongCounter strongCounter;
+      SyncWeakCounter weakCounter;
+
+      @Setup(Level.Trial)
+      public void setup(CounterContentionBenchmark benchmark) {
+         int node = benchmark.nextNode.getAndIncrement() % benchmark.cluster.size();
+         if (benchmark.counterType == CounterType.WEAK) {
+            weakCounter = benchmark.cluster.counterManager(node).getWeakCounter(COUNTER_NAME).sync();
+         } else {
+            strongCounter = benchmark.cluster.counterManager(node).getStrongCounter(COUNTER_NAME).sync();
+         }
+      }
+   }
+
+   @Benchmark
+   public long increment(NodeCounter counter) {
+      if (counter.weakCounter != null) {
+         counter.weakCounter.increment();
+         return 0;
+      }
+      return counter.strongCounter.incrementAndGet();
+   }
+}
@@ -0,0 +1,74 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the duration of every garbage collection reported by the JVM, between {@link #start()} and
+ * {@link #stop()}.
+ * <p>
+ * The durations come from the HotSpot GC notifications. With concurrent collectors they include the concurrent
+ * phases of a cycle, so they are an upper bound of the pauses seen by the application.
+ */
+class GcMonitor implements NotificationListener {
+
+   private final LongAdder collections = new LongAdder();
+   private final LongAdder totalMillis = new LongAdder();
+   private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+   void start() {
+      collections.reset();
+      totalMillis.reset();
+      maxMillis.reset();
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+         if (gc instanceof NotificationEmitter emitter) {
+            emitter.addNotificationListener(this, null, null);
+         }
+      }
+   }
+
+   void stop() {
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+         if (gc instanceof NotificationEmitter emitter) {
+            try {
+               emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+               // Not registered
+            }
+         }
+      }
+   }
+
+   @Override
+   public void handleNotification(Notification notification, Object handback) {
+      if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+         GarbageCollectionNotificationInfo info =
+               GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+         long duration = info.getGcInfo().getDuration();
+         collections.increment();
+         totalMillis.add(duration);
+         maxMillis.accumulate(duration);
+      }
+   }
+
+   String format() {
+      return String.format("%d collections, %d ms total, %d ms max", collections.sum(), totalMillis.sum(),
+            maxMillis.get());
+   }
+
+   static long usedHeap() {
+      // Collect twice so that objects released by finalization and reference processing are gone
+      System.gc();
+      System.gc();
+      return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+   }
+}
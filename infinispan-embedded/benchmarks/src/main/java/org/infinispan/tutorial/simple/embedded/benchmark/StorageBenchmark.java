@@ -0,0 +1,119 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.manager.DefaultCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares heap and off-heap storage of a local cache: footprint per entry, garbage collections and get/put latency.
+ * <p>
+ * The footprint is printed when the trial starts, the garbage collections after each iteration. The off-heap cache
+ * is not bounded here, so that both caches hold every entry. Give the forked JVM enough heap for 10M entries, for
+ * example {@code mvn exec:exec -Dbenchmark="StorageBenchmark -jvmArgsAppend -Xmx8g"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class StorageBenchmark {
+
+   static final int LOAD_BATCH_SIZE = 10_000;
+
+   @Param({"HEAP", "OFF_HEAP"})
+   public StorageType storage;
+
+   @Param({"1000000", "10000000"})
+   public int entries;
+
+   DefaultCacheManager cacheManager;
+   Cache<String, String> cache;
+   GcMonitor gcMonitor = new GcMonitor();
+
+   @Setup(Level.Trial)
+   public void setup() {
+      long heapBefore = GcMonitor.usedHeap();
+      cacheManager = new DefaultCacheManager();
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (storage == StorageType.OFF_HEAP) {
+         builder.encoding().mediaType(MediaType.APPLICATION_PROTOSTREAM_TYPE);
+      }
+      builder.memory().storage(storage);
+      builder.statistics().enable();
+      cacheManager.defineConfiguration("storage", builder.build());
+      cache = cacheManager.getCache("storage");
+
+      Map<String, String> batch = new HashMap<>();
+      for (int i = 0; i < entries; i++) {
+         batch.put(key(i), value(i));
+         if (batch.size() == LOAD_BATCH_SIZE) {
+            cache.putAll(batch);
+            batch.clear();
+         }
+      }
+      cache.putAll(batch);
+
+      long heap = GcMonitor.usedHeap() - heapBefore;
+      long offHeap = cache.getAdvancedCache().getStats().getOffHeapMemoryUsed();
+      System.out.printf("%n%s storage, %d entries: heap %d bytes/entry, off-heap %d bytes/entry%n", storage, entries,
+            heap / entries, offHeap / entries);
+   }
+
+   @Setup(Level.Iteration)
+   public void startGcMonitor() {
+      gcMonitor.start();
+   }
+
+   @TearDown(Level.Iteration)
+   public void printGcActivity() {
+      gcMonitor.stop();
+      System.out.printf("%nGC: %s%n", gcMonitor.format());
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public String get() {
+      return cache.get(key(ThreadLocalRandom.current().nextInt(entries)));
+   }
+
+   @Benchmark
+   public String put() {
+      int i = ThreadLocalRandom.current().nextInt(entries);
+      return cache.put(key(i), value(i));
+   }
+
+   private static String key(int i) {
+      return "key-" + i;
+   }
+
+   private static String value(int i) {
+      return "value-" + i + "-0123456789abcdef";
+   }
+}
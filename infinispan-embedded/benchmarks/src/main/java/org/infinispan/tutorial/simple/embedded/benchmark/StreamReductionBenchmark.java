@@ -0,0 +1,105 @@
+package org.infinispan.tutorial.simple.embedded.benchmark;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.tutorial.simple.streams.InfinispanStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reductions of {@link InfinispanStreams}: boxed Integers summed with a collector, primitive longs, and
+ * primitive longs summed in parallel over the segments of the cache.
+ * <p>
+ * The {@code DIST_SYNC} runs join a second node to the cluster, so that half of the segments are reduced remotely.
+ * <p>
+ * Run with {@code mvn exec:exec -Dbenchmark="StreamReductionBenchmark -prof gc"} to see the allocation rate of each
+ * reduction next to its time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.net.preferIPv4Stack=true", "-Djgroups.bind_addr=127.0.0.1"})
+public class StreamReductionBenchmark {
+
+   @Param({"LOCAL", "DIST_SYNC"})
+   public String cacheMode;
+
+   @Param({"100000", "1000000"})
+   public int entries;
+
+   InfinispanStreams streams;
+   DefaultCacheManager secondNode;
+
+   @Setup(Level.Trial)
+   public void setup() throws InterruptedException {
+      streams = new InfinispanStreams();
+      if ("LOCAL".equals(cacheMode)) {
+         streams.createDefaultCacheManagerAndInitCache();
+      } else {
+         streams.createClusteredCacheManagerAndInitCache();
+         secondNode = joinSecondNode();
+      }
+      streams.storeKeyValues(entries);
+   }
+
+   private DefaultCacheManager joinSecondNode() throws InterruptedException {
+      // Same distributed cache as InfinispanStreams.createClusteredCacheManagerAndInitCache
+      DefaultCacheManager cacheManager = new DefaultCacheManager(GlobalConfigurationBuilder.defaultClusteredBuilder().build());
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      cacheManager.defineConfiguration("distributed", builder.build());
+      Cache<String, String> cache = cacheManager.getCache("distributed");
+      // Wait until the cache is distributed over both nodes
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+      while (cache.getAdvancedCache().getDistributionManager().getCacheTopology().getMembers().size() != 2) {
+         if (System.nanoTime() > deadline) {
+            cacheManager.stop();
+            throw new IllegalStateException("The second node did not join the distributed cache");
+         }
+         Thread.sleep(100);
+      }
+      return cacheManager;
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      if (secondNode != null) {
+         secondNode.stop();
+         secondNode = null;
+      }
+      streams.stopDefaultCacheManager();
+   }
+
+   @Benchmark
+   public int boxed() {
+      return streams.mapAndReduceKeys();
+   }
+
+   @Benchmark
+   public long primitive() {
+      return streams.mapAndReduceKeysToLong();
+   }
+
+   @Benchmark
+   public long parallel() {
+      return streams.mapAndReduceKeysInParallel();
+   }
+}
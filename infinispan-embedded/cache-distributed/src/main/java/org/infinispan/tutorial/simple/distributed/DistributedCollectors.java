@@ -0,0 +1,102 @@
+package org.infinispan.tutorial.simple.distributed;
+
+import org.infinispan.util.function.SerializableComparator;
+import org.infinispan.util.function.SerializableFunction;
+import org.infinispan.util.function.SerializableToDoubleFunction;
+import org.infinispan.util.function.SerializableToLongFunction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+
+/**
+ * Collectors that aggregate the entries of a distributed cache on the nodes that own them.
+ * <p>
+ * Pass them to a cache stream inside a supplier, so that every node creates its own collector:
+ * <pre>
+ *    cache.entrySet().stream().collect(() -&gt; DistributedCollectors.groupingByCount(e -&gt; e.getValue()));
+ * </pre>
+ * Each node accumulates the entries of its segments in a container, and only the containers travel to the node that
+ * runs the stream, where they are combined. The network transfer depends on the number of groups, buckets or top
+ * elements, not on the number of entries. Containers are JDK collections or {@link Stats}, which the cache manager
+ * must be able to marshall.
+ */
+public final class DistributedCollectors {
+
+   private DistributedCollectors() {
+   }
+
+   /**
+    * Counts the elements of each group.
+    */
+   public static <T, K> Collector<T, ?, Map<K, Long>> groupingByCount(SerializableFunction<? super T, ? extends K> classifier) {
+      return Collector.<T, Map<K, Long>>of(HashMap::new,
+            (counts, t) -> counts.merge(classifier.apply(t), 1L, Long::sum),
+            (left, right) -> {
+               right.forEach((k, count) -> left.merge(k, count, Long::sum));
+               return left;
+            });
+   }
+
+   /**
+    * Keeps the {@code k} greatest elements according to the comparator, greatest first.
+    */
+   public static <T> Collector<T, ?, List<T>> topK(int k, SerializableComparator<? super T> comparator) {
+      Comparator<? super T> descending = comparator.reversed();
+      return Collector.<T, List<T>, List<T>>of(ArrayList::new,
+            (top, t) -> {
+               top.add(t);
+               // Prune once in a while instead of keeping the list sorted on every element
+               if (top.size() >= 2 * k) {
+                  prune(top, k, descending);
+               }
+            },
+            (left, right) -> {
+               left.addAll(right);
+               prune(left, k, descending);
+               return left;
+            },
+            top -> {
+               prune(top, k, descending);
+               return top;
+            });
+   }
+
+   private static <T> void prune(List<T> top, int k, Comparator<? super T> descending) {
+      top.sort(descending);
+      if (top.size() > k) {
+         top.subList(k, top.size()).clear();
+      }
+   }
+
+   /**
+    * Counts the elements in buckets of {@code bucketWidth}, keyed by the lower bound of each bucket.
+    */
+   public static <T> Collector<T, ?, SortedMap<Long, Long>> histogram(SerializableToLongFunction<? super T> value,
+                                                                      long bucketWidth) {
+      if (bucketWidth <= 0) {
+         throw new IllegalArgumentException("bucketWidth must be positive");
+      }
+      return Collector.<T, Map<Long, Long>, SortedMap<Long, Long>>of(HashMap::new,
+            (buckets, t) -> buckets.merge(Math.floorDiv(value.applyAsLong(t), bucketWidth) * bucketWidth, 1L, Long::sum),
+            (left, right) -> {
+               right.forEach((bucket, count) -> left.merge(bucket, count, Long::sum));
+               return left;
+            },
+            TreeMap::new);
+   }
+
+   /**
+    * Computes the count, sum, minimum, maximum and average of the values.
+    */
+   public static <T> Collector<T, ?, Stats> stats(SerializableToDoubleFunction<? super T> value) {
+      return Collector.of(Stats::new,
+            (stats, t) -> stats.accept(value.applyAsDouble(t)),
+            Stats::combine);
+   }
+}
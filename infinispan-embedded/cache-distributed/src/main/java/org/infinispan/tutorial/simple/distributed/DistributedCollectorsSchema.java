@@ -0,0 +1,8 @@
+package org.infinispan.tutorial.simple.distributed;
+
+import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.protostream.annotations.ProtoSchema;
+
+@ProtoSchema(schemaPackageName = "tutorial.collectors", includeClasses = Stats.class)
+public interface DistributedCollectorsSchema extends GeneratedSchema {
+}
@@ -1,5 +1,9 @@
 package org.infinispan.tutorial.simple.distributed;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
 import java.util.UUID;
 
 import org.infinispan.Cache;
@@ -12,20 +16,26 @@ import org.infinispan.manager.DefaultCacheManager;
 
 public class InfinispanDistributed {
    public static final String DIST_CACHE_NAME = "cache";
+   public static final String MEASUREMENTS_CACHE_NAME = "measurements";
    DefaultCacheManager cm1;
    Cache<String, String> cache;
+   Cache<String, Integer> measurements;
 
    public static void main(String[] args) {
       InfinispanDistributed infinispanDistributed = new InfinispanDistributed();
       infinispanDistributed.createDefaultCacheManager();
       infinispanDistributed.createAndPopulateTheCache(10);
       infinispanDistributed.displayCacheContent();
+      infinispanDistributed.createAndPopulateMeasurements(1000);
+      infinispanDistributed.displayMeasurementsReport();
       infinispanDistributed.stopDefaultCacheManager();
    }
 
    public void createDefaultCacheManager() {
       // Setup up a clustered cache manager
       GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      // Marshall the partial results of the distributed collectors
+      global.serialization().addContextInitializer(new DistributedCollectorsSchemaImpl());
       // Initialize the cache manager
       cm1 = new DefaultCacheManager(global.build());
    }
@@ -58,6 +68,46 @@ public class InfinispanDistributed {
               .forEach(entry -> System.out.printf("%s = %s\n", entry.getKey(), entry.getValue()));
    }
 
+   public void createAndPopulateMeasurements(int size) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      measurements = cm1.administration().withFlags(CacheContainerAdmin.AdminFlag.VOLATILE)
+              .getOrCreateCache(MEASUREMENTS_CACHE_NAME, builder.build());
+      // Store temperatures between -10 and 40 degrees, taken by 10 sensors
+      Random random = new Random(42);
+      for (int i = 0; i < size; i++) {
+         measurements.put("sensor-" + (i % 10) + "-" + i, random.nextInt(51) - 10);
+      }
+   }
+
+   public Map<String, Long> countMeasurementsBySensor() {
+      // Each node counts its own entries, only the counts per sensor are sent back
+      return measurements.entrySet().stream()
+              .collect(() -> DistributedCollectors.groupingByCount(e -> e.getKey().substring(0, e.getKey().lastIndexOf('-'))));
+   }
+
+   public List<Integer> hottestMeasurements(int k) {
+      return measurements.values().stream()
+              .collect(() -> DistributedCollectors.topK(k, Integer::compare));
+   }
+
+   public SortedMap<Long, Long> temperatureHistogram(long bucketWidth) {
+      return measurements.values().stream()
+              .collect(() -> DistributedCollectors.histogram(Integer::longValue, bucketWidth));
+   }
+
+   public Stats temperatureStats() {
+      return measurements.values().stream()
+              .collect(() -> DistributedCollectors.stats(Integer::doubleValue));
+   }
+
+   public void displayMeasurementsReport() {
+      System.out.printf("Measurements by sensor: %s\n", countMeasurementsBySensor());
+      System.out.printf("Hottest measurements: %s\n", hottestMeasurements(3));
+      System.out.printf("Temperature histogram: %s\n", temperatureHistogram(10));
+      System.out.printf("Temperature stats: %s\n", temperatureStats());
+   }
+
    public void stopDefaultCacheManager() {
       if (cm1 != null) {
          // Stop the cache manager and release all resources
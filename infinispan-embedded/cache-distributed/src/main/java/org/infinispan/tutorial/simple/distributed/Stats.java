@@ -0,0 +1,76 @@
+package org.infinispan.tutorial.simple.distributed;
+
+import org.infinispan.protostream.annotations.ProtoField;
+
+/**
+ * Count, sum, minimum and maximum of a set of values, accumulated on each node by
+ * {@link DistributedCollectors#stats} and combined on the node that runs the stream.
+ */
+public class Stats {
+
+   @ProtoField(number = 1, defaultValue = "0")
+   long count;
+
+   @ProtoField(number = 2, defaultValue = "0")
+   double sum;
+
+   @ProtoField(number = 3, defaultValue = "0")
+   double min;
+
+   @ProtoField(number = 4, defaultValue = "0")
+   double max;
+
+   public Stats() {
+   }
+
+   void accept(double value) {
+      if (count == 0) {
+         min = value;
+         max = value;
+      } else {
+         min = Math.min(min, value);
+         max = Math.max(max, value);
+      }
+      count++;
+      sum += value;
+   }
+
+   Stats combine(Stats other) {
+      if (other.count == 0) {
+         return this;
+      }
+      if (count == 0) {
+         return other;
+      }
+      count += other.count;
+      sum += other.sum;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+      return this;
+   }
+
+   public long count() {
+      return count;
+   }
+
+   public double sum() {
+      return sum;
+   }
+
+   public double min() {
+      return min;
+   }
+
+   public double max() {
+      return max;
+   }
+
+   public double average() {
+      return count == 0 ? 0 : sum / count;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("count=%d, min=%.2f, max=%.2f, avg=%.2f", count, min, max, average());
+   }
+}
@@ -1,10 +1,15 @@
 package org.infinispan.tutorial.simple.distributed;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.infinispan.tutorial.simple.distributed.InfinispanDistributed.DIST_CACHE_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanDistributedTest {
     InfinispanDistributed infinispanDistributed = new InfinispanDistributed();
@@ -24,4 +29,26 @@ public class InfinispanDistributedTest {
         infinispanDistributed.createAndPopulateTheCache(10);
         assertEquals(10, infinispanDistributed.cm1.getCache(DIST_CACHE_NAME).size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDistributedCollectors() {
+        infinispanDistributed.createAndPopulateMeasurements(1000);
+
+        Map<String, Long> bySensor = infinispanDistributed.countMeasurementsBySensor();
+        assertEquals(10, bySensor.size());
+        assertEquals(100L, bySensor.get("sensor-3"));
+
+        List<Integer> hottest = infinispanDistributed.hottestMeasurements(3);
+        assertEquals(3, hottest.size());
+        assertTrue(hottest.get(0) >= hottest.get(1) && hottest.get(1) >= hottest.get(2));
+
+        SortedMap<Long, Long> histogram = infinispanDistributed.temperatureHistogram(10);
+        assertEquals(1000L, histogram.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(histogram.firstKey() >= -10 && histogram.lastKey() <= 40);
+
+        Stats stats = infinispanDistributed.temperatureStats();
+        assertEquals(1000L, stats.count());
+        assertEquals(hottest.get(0).doubleValue(), stats.max());
+        assertTrue(stats.min() >= -10 && stats.average() <= 40);
+    }
+}
@@ -1,5 +1,9 @@
 package org.infinispan.tutorial.simple.clusterexec;
 
+import org.infinispan.Cache;
+import org.infinispan.commons.api.CacheContainerAdmin;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.manager.ClusterExecutor;
 import org.infinispan.manager.DefaultCacheManager;
@@ -8,17 +12,26 @@ import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.function.SerializableFunction;
 import org.infinispan.util.function.TriConsumer;
 
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 public class InfinispanClusterExec {
 
+   public static final String CACHE_NAME = "numbers";
    DefaultCacheManager cacheManager;
+   Cache<String, Integer> cache;
 
    public static void main(String[] args) {
       InfinispanClusterExec infinispanClusterExec = new InfinispanClusterExec();
       infinispanClusterExec.createCacheManager();
       infinispanClusterExec.submitTask(cm -> new Random().nextInt(),
               (address, intValue, exception) -> System.out.printf("%s\n", intValue));
+      infinispanClusterExec.createAndPopulateCache(1000);
+      long sum = infinispanClusterExec.sumValuesWhereTheyLive(
+              (address, partialSum) -> System.out.printf("%s = %d\n", address, partialSum)).join();
+      System.out.printf("Sum = %d\n", sum);
       infinispanClusterExec.stopDefaultCacheManager();
    }
 
@@ -27,6 +40,23 @@ public class InfinispanClusterExec {
       clusterExecutor.submitConsumer(task, triConsumer);
    }
 
+   public void createAndPopulateCache(int size) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      cache = cacheManager.administration().withFlags(CacheContainerAdmin.AdminFlag.VOLATILE)
+              .getOrCreateCache(CACHE_NAME, builder.build());
+      for (int i = 0; i < size; i++) {
+         cache.put("key-" + i, i);
+      }
+   }
+
+   public CompletableFuture<Long> sumValuesWhereTheyLive(BiConsumer<Address, Long> onPartialResult) {
+      // Every node sums the values it owns, and only the partial sums are sent back and added
+      ScatterGather<Long> scatterGather = new ScatterGather<>(cacheManager, Long::sum);
+      return scatterGather.execute(ScatterGather.<String, Integer, Long>overLocalEntries(CACHE_NAME,
+              entries -> entries.mapToLong(Map.Entry::getValue).sum()), onPartialResult);
+   }
+
    public void createCacheManager() {
       // Setup up a clustered cache manager
       GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
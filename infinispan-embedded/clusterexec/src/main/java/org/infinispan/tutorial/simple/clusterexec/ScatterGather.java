@@ -0,0 +1,179 @@
+package org.infinispan.tutorial.simple.clusterexec;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.function.SerializableFunction;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Runs a task on every node of the cluster with the {@link org.infinispan.manager.ClusterExecutor}, and merges the
+ * partial results as they arrive.
+ * <p>
+ * The task is submitted to each node separately, so every node has its own timeout and is retried on its own when
+ * it fails or times out. Each partial result is passed to a listener and merged with the combiner as soon as it
+ * arrives. The combiner is called once per partial result, one call at a time, so it may merge into a mutable
+ * accumulator. Cancelling the returned future cancels the pending submissions and stops the retries.
+ * <p>
+ * A node is retried on the same address. When a node leaves the cluster during the execution, its retries fail and
+ * the execution fails with them: the segments the node owned are not processed again on their new owners.
+ * <p>
+ * Use {@link #overLocalEntries} to run the task over the entries each node owns, so that only the partial results
+ * travel in the cluster instead of the entries.
+ */
+public class ScatterGather<R> {
+
+   public static final Duration DEFAULT_NODE_TIMEOUT = Duration.ofSeconds(30);
+   public static final int DEFAULT_MAX_RETRIES = 2;
+
+   private final EmbeddedCacheManager cacheManager;
+   private final BinaryOperator<R> combiner;
+   private final Duration nodeTimeout;
+   private final int maxRetries;
+
+   public ScatterGather(EmbeddedCacheManager cacheManager, BinaryOperator<R> combiner) {
+      this(cacheManager, combiner, DEFAULT_NODE_TIMEOUT, DEFAULT_MAX_RETRIES);
+   }
+
+   public ScatterGather(EmbeddedCacheManager cacheManager, BinaryOperator<R> combiner, Duration nodeTimeout,
+                        int maxRetries) {
+      this.cacheManager = cacheManager;
+      this.combiner = combiner;
+      this.nodeTimeout = nodeTimeout;
+      this.maxRetries = maxRetries;
+   }
+
+   /**
+    * Runs the task on every member of the cluster.
+    *
+    * @param task            the task, serialized and sent to every node
+    * @param onPartialResult called with each node result as it arrives, may be called from different threads
+    * @return a future completed with the combined result once every node answered, or with the failure of the first
+    * node that failed after its retries. The result is {@code null} when no node returned a result.
+    */
+   public CompletableFuture<R> execute(SerializableFunction<EmbeddedCacheManager, R> task,
+                                       BiConsumer<Address, R> onPartialResult) {
+      List<Address> members = cacheManager.getMembers();
+      Execution execution = new Execution(task, onPartialResult, members.size());
+      members.forEach(member -> execution.submit(member, 0));
+      return execution.result;
+   }
+
+   public CompletableFuture<R> execute(SerializableFunction<EmbeddedCacheManager, R> task) {
+      return execute(task, (address, partialResult) -> { });
+   }
+
+   /**
+    * Wraps a task that processes the entries of a cache stored in the node where it runs. In a distributed cache
+    * the task only sees the entries for which the node is the primary owner, so that each entry is processed once
+    * in the cluster.
+    */
+   public static <K, V, R> SerializableFunction<EmbeddedCacheManager, R> overLocalEntries(String cacheName,
+         SerializableFunction<Stream<Map.Entry<K, V>>, R> task) {
+      return cm -> {
+         Cache<K, V> cache = cm.getCache(cacheName);
+         AdvancedCache<K, V> localCache = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL);
+         DistributionManager distributionManager = localCache.getDistributionManager();
+         try (Stream<Map.Entry<K, V>> entries = localCache.entrySet().stream()) {
+            if (distributionManager == null) {
+               return task.apply(entries);
+            }
+            return task.apply(entries.filter(e ->
+                  distributionManager.getCacheTopology().getDistribution(e.getKey()).isPrimary()));
+         }
+      };
+   }
+
+   private class Execution {
+      final CompletableFuture<R> result = new CompletableFuture<>();
+      final SerializableFunction<EmbeddedCacheManager, R> task;
+      final BiConsumer<Address, R> onPartialResult;
+      final AtomicInteger pendingNodes;
+      // Guarded by this
+      R combined;
+      final Set<CompletableFuture<Void>> submissions = ConcurrentHashMap.newKeySet();
+
+      Execution(SerializableFunction<EmbeddedCacheManager, R> task, BiConsumer<Address, R> onPartialResult,
+                int nodes) {
+         this.task = task;
+         this.onPartialResult = onPartialResult;
+         this.pendingNodes = new AtomicInteger(nodes);
+         if (nodes == 0) {
+            result.complete(null);
+         }
+         // Cancelling or failing the execution cancels the submissions still running
+         result.whenComplete((r, t) -> {
+            if (t != null) {
+               submissions.forEach(submission -> submission.cancel(true));
+            }
+         });
+      }
+
+      void submit(Address member, int attempt) {
+         if (result.isDone()) {
+            return;
+         }
+         AtomicReference<R> nodeResult = new AtomicReference<>();
+         AtomicReference<Throwable> nodeFailure = new AtomicReference<>();
+         CompletableFuture<Void> submission = cacheManager.executor()
+               .filterTargets(Set.of(member))
+               .timeout(nodeTimeout.toMillis(), TimeUnit.MILLISECONDS)
+               .submitConsumer(task, (address, value, throwable) -> {
+                  // Exceptions thrown by the task are passed here, not to the future
+                  if (throwable == null) {
+                     nodeResult.set(value);
+                  } else {
+                     nodeFailure.set(throwable);
+                  }
+               });
+         submissions.add(submission);
+         submission.whenComplete((ignore, submissionFailure) -> {
+            submissions.remove(submission);
+            Throwable throwable = submissionFailure != null ? submissionFailure : nodeFailure.get();
+            if (throwable == null) {
+               accept(member, nodeResult.get());
+            } else if (throwable instanceof CancellationException || result.isDone()) {
+               // The execution was cancelled, nothing to retry
+            } else if (attempt < maxRetries) {
+               submit(member, attempt + 1);
+            } else {
+               result.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+            }
+         });
+      }
+
+      void accept(Address member, R partialResult) {
+         if (result.isDone()) {
+            return;
+         }
+         if (partialResult != null) {
+            onPartialResult.accept(member, partialResult);
+            synchronized (this) {
+               combined = combined == null ? partialResult : combiner.apply(combined, partialResult);
+            }
+         }
+         if (pendingNodes.decrementAndGet() == 0) {
+            synchronized (this) {
+               result.complete(combined);
+            }
+         }
+      }
+   }
+}
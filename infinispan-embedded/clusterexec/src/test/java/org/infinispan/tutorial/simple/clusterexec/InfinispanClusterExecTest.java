@@ -9,11 +9,17 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class InfinispanClusterExecTest {
 
@@ -43,4 +49,43 @@ public class InfinispanClusterExecTest {
         assertEquals(1, values.size());
         assertNotNull(values.get(uuid.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScatterGather() throws Exception {
+        infinispanClusterExec.createAndPopulateCache(100);
+        Map<Address, Long> partialSums = new ConcurrentHashMap<>();
+        long sum = infinispanClusterExec.sumValuesWhereTheyLive(partialSums::put).get(10, TimeUnit.SECONDS);
+        assertEquals(4950, sum);
+        assertEquals(1, partialSums.size());
+        assertEquals(4950, partialSums.get(infinispanClusterExec.cacheManager.getAddress()));
+    }
+
+    @Test
+    public void testScatterGatherRetriesAndFails() {
+        AtomicInteger attempts = new AtomicInteger();
+        ScatterGather<Integer> scatterGather = new ScatterGather<>(infinispanClusterExec.cacheManager, Integer::sum,
+                ScatterGather.DEFAULT_NODE_TIMEOUT, 2);
+        // Runs in the local node, so the counter is shared
+        CompletableFuture<Integer> result = scatterGather.execute(cm -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("failing task");
+        });
+        assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testScatterGatherCancellation() {
+        ScatterGather<Integer> scatterGather = new ScatterGather<>(infinispanClusterExec.cacheManager, Integer::sum);
+        CompletableFuture<Integer> result = scatterGather.execute(cm -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        result.cancel(true);
+        assertThrows(CancellationException.class, result::join);
+    }
+}
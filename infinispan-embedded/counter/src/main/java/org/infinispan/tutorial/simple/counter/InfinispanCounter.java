@@ -7,6 +7,12 @@ import org.infinispan.counter.api.StrongCounter;
 import org.infinispan.counter.api.WeakCounter;
 import org.infinispan.counter.configuration.CounterManagerConfigurationBuilder;
 import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.tutorial.simple.counter.utils.CounterAccumulator;
+import org.infinispan.tutorial.simple.counter.utils.LeasedRateLimiter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The Counter simple tutorial.
@@ -22,11 +28,14 @@ public class InfinispanCounter {
    static StrongCounter counter1;
    static StrongCounter counter2;
    static WeakCounter counter3;
+   static StrongCounter pageViews;
 
    public static void main(String[] args) throws Exception {
       InfinispanCounter infinispanCounter = new InfinispanCounter();
       infinispanCounter.createCounterManager();
       infinispanCounter.createAndManipulateCounters();
+      infinispanCounter.countPageViews(1_000_000, 8);
+      infinispanCounter.limitRequests(1000);
       infinispanCounter.stopCounterManager();
    }
 
@@ -86,6 +95,44 @@ public class InfinispanCounter {
       System.out.println("Counter-3 value is " + counter3.getValue());
    }
 
+   public long countPageViews(int views, int threads) throws Exception {
+      pageViews = counterManager.getStrongCounter("page-views");
+      // Page views are counted in memory and added to the counter in batches, instead of one update per view
+      try (CounterAccumulator accumulator = new CounterAccumulator(pageViews)) {
+         ExecutorService executor = Executors.newFixedThreadPool(threads);
+         for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+               for (int i = 0; i < views / threads; i++) {
+                  accumulator.increment();
+               }
+            });
+         }
+         executor.shutdown();
+         executor.awaitTermination(1, TimeUnit.MINUTES);
+         System.out.println("Page views flushed " + accumulator.flushes() + " times, pending " + accumulator.pending());
+      }
+      // Closing the accumulator flushed the remaining views
+      long value = pageViews.getValue().get();
+      System.out.println("Page views value is " + value);
+      return value;
+   }
+
+   public int limitRequests(int requests) {
+      // 100 permits at most, refilled with 50 permits per second
+      try (LeasedRateLimiter rateLimiter = new LeasedRateLimiter(counterManager, "api-rate-limit", 100, 50)) {
+         int granted = 0;
+         for (int i = 0; i < requests; i++) {
+            // Most requests are served from the permits leased locally, without a counter operation
+            if (rateLimiter.tryAcquire()) {
+               granted++;
+            }
+         }
+         System.out.printf("Rate limiter granted %d of %d requests with %d leases, lease size %d%n", granted, requests,
+               rateLimiter.leases(), rateLimiter.leaseSize());
+         return granted;
+      }
+   }
+
    public void createCounterManager() {
       // Setup up a clustered cache manager
       GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
@@ -98,6 +145,8 @@ public class InfinispanCounter {
       builder.addStrongCounter().name("counter-2").initialValue(2);
       // And finally, the third counter is a weak counter.
       builder.addWeakCounter().name("counter-3").initialValue(3);
+      // A strong counter updated in batches
+      builder.addStrongCounter().name("page-views").initialValue(0);
 
       // Initialize the cache manager
       cm1 = new DefaultCacheManager(global.build());
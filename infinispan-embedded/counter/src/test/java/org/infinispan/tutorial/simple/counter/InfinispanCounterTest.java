@@ -1,11 +1,15 @@
 package org.infinispan.tutorial.simple.counter;
 
+import org.infinispan.tutorial.simple.counter.utils.CounterAccumulator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanCounterTest {
 
@@ -32,4 +36,30 @@ public class InfinispanCounterTest {
         assertNotNull(InfinispanCounter.counter3);
         assertEquals(8, InfinispanCounter.counter3.sync().getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCounterAccumulator() throws Exception {
+        assertEquals(80_000, infinispanCounter.countPageViews(80_000, 8));
+
+        // Increments below the threshold reach the counter after the staleness bound
+        try (CounterAccumulator accumulator = new CounterAccumulator(InfinispanCounter.pageViews, Duration.ofMillis(50), 1_000_000)) {
+            accumulator.add(5);
+            assertEquals(5, accumulator.pending());
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (InfinispanCounter.pageViews.sync().getValue() != 80_005 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(80_005, InfinispanCounter.pageViews.sync().getValue());
+            assertEquals(0, accumulator.pending());
+            assertTrue(accumulator.flushes() >= 1);
+        }
+    }
+
+    @Test
+    public void testLeasedRateLimiter() {
+        int granted = infinispanCounter.limitRequests(1000);
+        // The bucket starts full, a few more permits may be refilled while the requests run
+        assertTrue(granted >= 100, "granted " + granted);
+        assertTrue(granted < 1000, "granted " + granted);
+    }
+}
@@ -14,6 +14,7 @@ import org.infinispan.manager.DefaultCacheManager;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -24,10 +25,14 @@ public class InfinispanFunctional {
    static FunctionalMapImpl<String, String> functionalMap;
    static FunctionalMap.WriteOnlyMap<String, String> writeOnlyMap;
    static FunctionalMap.ReadOnlyMap<String, String> readOnlyMap;
+   static FunctionalMap.ReadWriteMap<String, Long> countersMap;
+   static FunctionalMap.ReadWriteMap<String, List<String>> listsMap;
+   static FunctionalMap.ReadWriteMap<String, Map<String, Long>> mapsMap;
 
    public static void main(String[] args) throws Exception {
       createAndStartComponents();
       manipulateFunctionalMap();
+      updateInBulk();
       stop();
    }
 
@@ -77,6 +82,26 @@ public class InfinispanFunctional {
       previousValues.forEach(prev -> System.out.printf("%s%n", prev));
    }
 
+   static void updateInBulk() {
+      // Increment many counters with a single call, each counter is updated where it is stored
+      Map<String, Long> deltas = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+         deltas.put("counter" + i, (long) i);
+      }
+      countersMap.evalMany(deltas, ReadWriteFunctions.increment())
+            .forEach(value -> System.out.printf("Incremented to %d%n", value));
+
+      // Keep the highest value seen for a key
+      Traversable<Long> highest = countersMap.evalMany(Map.of("highest", 42L), ReadWriteFunctions.max());
+      System.out.printf("Highest = %s%n", highest.findAny().orElse(null));
+
+      // Append to lists and merge maps in place of reading, changing and writing them back
+      listsMap.evalMany(Map.of("list1", "a", "list2", "b"), ReadWriteFunctions.append())
+            .forEach(size -> System.out.printf("List size = %d%n", size));
+      mapsMap.evalMany(Map.of("map1", Map.of("x", 1L, "y", 2L)), ReadWriteFunctions.mergeMap(Long::sum))
+            .forEach(size -> System.out.printf("Map size = %d%n", size));
+   }
+
    static void createAndStartComponents() {
       cacheManager = new DefaultCacheManager();
       cacheManager.defineConfiguration("local", new ConfigurationBuilder().build());
@@ -84,6 +109,15 @@ public class InfinispanFunctional {
       functionalMap = FunctionalMapImpl.create(cache);
       writeOnlyMap = WriteOnlyMapImpl.create(functionalMap);
       readOnlyMap = ReadOnlyMapImpl.create(functionalMap);
+      countersMap = readWriteMap("counters");
+      listsMap = readWriteMap("lists");
+      mapsMap = readWriteMap("maps");
+   }
+
+   static <V> FunctionalMap.ReadWriteMap<String, V> readWriteMap(String cacheName) {
+      cacheManager.defineConfiguration(cacheName, new ConfigurationBuilder().build());
+      AdvancedCache<String, V> advancedCache = cacheManager.<String, V>getCache(cacheName).getAdvancedCache();
+      return ReadWriteMapImpl.create(FunctionalMapImpl.create(advancedCache));
    }
 
    static void stop() {
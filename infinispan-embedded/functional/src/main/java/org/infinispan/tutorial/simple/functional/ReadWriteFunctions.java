@@ -0,0 +1,92 @@
+package org.infinispan.tutorial.simple.functional;
+
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.util.function.SerializableBiFunction;
+import org.infinispan.util.function.SerializableBinaryOperator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-modify-write functions for {@link org.infinispan.functional.FunctionalMap.ReadWriteMap#evalMany}.
+ * <p>
+ * Each function receives the argument given for a key and the entry of that key, and updates the entry where it
+ * is stored, on the owner of the key in a clustered cache. Updating many keys takes a single {@code evalMany} call,
+ * instead of a get and a put for every key. The functions are serializable, so they can be sent to other nodes.
+ * <p>
+ * Stored values are never modified in place: lists and maps are copied before they are changed.
+ */
+public final class ReadWriteFunctions {
+
+   private ReadWriteFunctions() {
+   }
+
+   /**
+    * Adds the argument to the stored number, starting from zero, and returns the new value.
+    */
+   public static <K> SerializableBiFunction<Long, ReadWriteEntryView<K, Long>, Long> increment() {
+      return (delta, view) -> {
+         long value = view.find().orElse(0L) + delta;
+         view.set(value);
+         return value;
+      };
+   }
+
+   /**
+    * Appends the argument to the stored list, starting from an empty list, and returns the new size of the list.
+    */
+   public static <K, E> SerializableBiFunction<E, ReadWriteEntryView<K, List<E>>, Integer> append() {
+      return (element, view) -> {
+         List<E> list = view.find().map(ArrayList::new).orElseGet(ArrayList::new);
+         list.add(element);
+         view.set(list);
+         return list.size();
+      };
+   }
+
+   /**
+    * Stores the argument when there is no value or when it is greater than the stored value, and returns the
+    * value in the cache after the update.
+    */
+   public static <K, V extends Comparable<? super V>> SerializableBiFunction<V, ReadWriteEntryView<K, V>, V> max() {
+      return (candidate, view) -> {
+         V current = view.find().orElse(null);
+         if (current == null || candidate.compareTo(current) > 0) {
+            view.set(candidate);
+            return candidate;
+         }
+         return current;
+      };
+   }
+
+   /**
+    * Stores the argument when there is no value or when it is smaller than the stored value, and returns the
+    * value in the cache after the update.
+    */
+   public static <K, V extends Comparable<? super V>> SerializableBiFunction<V, ReadWriteEntryView<K, V>, V> min() {
+      return (candidate, view) -> {
+         V current = view.find().orElse(null);
+         if (current == null || candidate.compareTo(current) < 0) {
+            view.set(candidate);
+            return candidate;
+         }
+         return current;
+      };
+   }
+
+   /**
+    * Merges the entries of the argument into the stored map, combining the values of the keys present in both
+    * with the remapping function, and returns the new size of the map.
+    */
+   public static <K, MK, MV> SerializableBiFunction<Map<MK, MV>, ReadWriteEntryView<K, Map<MK, MV>>, Integer> mergeMap(
+         SerializableBinaryOperator<MV> remapping) {
+      return (entries, view) -> {
+         Map<MK, MV> map = view.find().map(HashMap::new).orElseGet(HashMap::new);
+         entries.forEach((k, v) -> map.merge(k, v, remapping));
+         view.set(map);
+         return map.size();
+      };
+   }
+}
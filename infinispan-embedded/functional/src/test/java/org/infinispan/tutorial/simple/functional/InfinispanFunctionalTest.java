@@ -4,6 +4,10 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class InfinispanFunctionalTest {
@@ -27,4 +31,28 @@ public class InfinispanFunctionalTest {
 
         assertEquals(2, InfinispanFunctional.cache.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReadWriteFunctions() {
+        InfinispanFunctional.updateInBulk();
+
+        Map<String, Long> deltas = Map.of("counter1", 5L, "new", 3L);
+        List<Long> counters = InfinispanFunctional.countersMap.evalMany(deltas, ReadWriteFunctions.<String>increment())
+                .collect(Collectors.toList());
+        assertEquals(2, counters.size());
+        assertTrue(counters.contains(6L));
+        assertTrue(counters.contains(3L));
+
+        assertEquals(42L, InfinispanFunctional.countersMap
+                .evalMany(Map.of("highest", 7L), ReadWriteFunctions.<String, Long>max()).findAny().orElseThrow());
+        assertEquals(7L, InfinispanFunctional.countersMap
+                .evalMany(Map.of("lowest", 7L), ReadWriteFunctions.<String, Long>min()).findAny().orElseThrow());
+
+        assertEquals(2, InfinispanFunctional.listsMap
+                .evalMany(Map.of("list1", "c"), ReadWriteFunctions.<String, String>append()).findAny().orElseThrow());
+
+        assertEquals(3, InfinispanFunctional.mapsMap
+                .evalMany(Map.of("map1", Map.of("y", 3L, "z", 1L)), ReadWriteFunctions.<String, String, Long>mergeMap(Long::sum))
+                .findAny().orElseThrow());
+    }
+}
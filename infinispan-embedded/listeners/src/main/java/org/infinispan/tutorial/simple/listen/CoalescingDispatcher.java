@@ -0,0 +1,224 @@
+package org.infinispan.tutorial.simple.listen;
+
+import org.infinispan.Cache;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Cache listener that moves the work of another listener off the writing threads.
+ * <p>
+ * The callbacks only add the change to a bounded ring buffer, and drop it when the buffer is full instead of
+ * blocking the writer. A dispatcher thread collects the changes during a window, keeps the last change of each key,
+ * and delivers them as one batch. The counters show the backpressure: the depth of the buffer, the changes dropped,
+ * the changes merged with a later change of the same key, and the lag between a write and its delivery.
+ * <p>
+ * The dispatcher registers itself in the cache, and {@link #close()} removes it. {@link #flush()} waits for the
+ * changes already buffered without stopping the dispatcher.
+ */
+@Listener
+public class CoalescingDispatcher<K, V> implements AutoCloseable {
+
+   public static final int DEFAULT_CAPACITY = 8192;
+   public static final Duration DEFAULT_WINDOW = Duration.ofMillis(50);
+
+   /**
+    * @param created   true when the first change of the key in the batch created the entry
+    * @param timestamp the time of the first change of the key in the batch, from {@link System#nanoTime()}
+    */
+   public record Change<K, V>(K key, V value, boolean created, long timestamp) {
+   }
+
+   private final Cache<K, V> cache;
+   private final BlockingQueue<Change<K, V>> buffer;
+   private final long windowNanos;
+   private final int maxBatchSize;
+   private final Consumer<List<Change<K, V>>> batchListener;
+   private final Thread dispatcher;
+   private final LongAdder dropped = new LongAdder();
+   private final LongAdder coalesced = new LongAdder();
+   private final LongAdder delivered = new LongAdder();
+   private final LongAdder batches = new LongAdder();
+   private final LongAdder failures = new LongAdder();
+   private final LongAdder accepted = new LongAdder();
+   // Changes taken from the buffer and delivered or coalesced, guarded by this
+   private long processed;
+   private final LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+   private volatile boolean running = true;
+
+   public CoalescingDispatcher(Cache<K, V> cache, Consumer<List<Change<K, V>>> batchListener) {
+      this(cache, batchListener, DEFAULT_CAPACITY, DEFAULT_WINDOW);
+   }
+
+   public CoalescingDispatcher(Cache<K, V> cache, Consumer<List<Change<K, V>>> batchListener, int capacity,
+                               Duration window) {
+      this.cache = cache;
+      this.buffer = new ArrayBlockingQueue<>(capacity);
+      this.windowNanos = window.toNanos();
+      this.maxBatchSize = capacity;
+      this.batchListener = batchListener;
+      this.dispatcher = new Thread(this::dispatch, "coalescing-dispatcher");
+      this.dispatcher.setDaemon(true);
+      this.dispatcher.start();
+      cache.addListener(this);
+   }
+
+   @CacheEntryCreated
+   public void entryCreated(CacheEntryCreatedEvent<K, V> event) {
+      if (!event.isPre()) {
+         enqueue(new Change<>(event.getKey(), event.getValue(), true, System.nanoTime()));
+      }
+   }
+
+   @CacheEntryModified
+   public void entryModified(CacheEntryModifiedEvent<K, V> event) {
+      // Creations are also notified as modifications, they are already handled above
+      if (!event.isPre() && !event.isCreated()) {
+         enqueue(new Change<>(event.getKey(), event.getNewValue(), false, System.nanoTime()));
+      }
+   }
+
+   private void enqueue(Change<K, V> change) {
+      if (!running || !buffer.offer(change)) {
+         dropped.increment();
+      } else {
+         accepted.increment();
+      }
+   }
+
+   private void dispatch() {
+      while (running || !buffer.isEmpty()) {
+         try {
+            Change<K, V> first = buffer.poll(windowNanos, TimeUnit.NANOSECONDS);
+            if (first == null) {
+               continue;
+            }
+            Map<K, Change<K, V>> batch = new LinkedHashMap<>();
+            add(batch, first);
+            long deadline = first.timestamp() + windowNanos;
+            int collected = 1;
+            while (collected < maxBatchSize) {
+               Change<K, V> change = buffer.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+               if (change == null) {
+                  break;
+               }
+               add(batch, change);
+               collected++;
+            }
+            deliver(batch);
+            processed(collected);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+         }
+      }
+   }
+
+   private void add(Map<K, Change<K, V>> batch, Change<K, V> change) {
+      Change<K, V> previous = batch.get(change.key());
+      if (previous != null) {
+         coalesced.increment();
+         // Keep the time of the oldest write, so that the lag of the merged writes is not under-reported
+         change = new Change<>(change.key(), change.value(), previous.created(), previous.timestamp());
+      }
+      batch.put(change.key(), change);
+   }
+
+   private void deliver(Map<K, Change<K, V>> batch) {
+      long now = System.nanoTime();
+      List<Change<K, V>> changes = new ArrayList<>(batch.values());
+      for (Change<K, V> change : changes) {
+         maxLagNanos.accumulate(now - change.timestamp());
+      }
+      try {
+         batchListener.accept(changes);
+      } catch (RuntimeException e) {
+         // A failing listener must not stop the dispatcher
+         failures.increment();
+      }
+      delivered.add(changes.size());
+      batches.increment();
+   }
+
+   private synchronized void processed(int changes) {
+      processed += changes;
+      notifyAll();
+   }
+
+   /**
+    * Waits until the changes buffered before the call are delivered or coalesced.
+    */
+   public synchronized void flush() throws InterruptedException {
+      long target = accepted.sum();
+      while (processed < target && dispatcher.isAlive()) {
+         wait(TimeUnit.NANOSECONDS.toMillis(windowNanos) + 1);
+      }
+   }
+
+   /**
+    * @return the number of changes waiting in the buffer
+    */
+   public int queueDepth() {
+      return buffer.size();
+   }
+
+   /**
+    * @return the number of changes lost because the buffer was full
+    */
+   public long dropped() {
+      return dropped.sum();
+   }
+
+   /**
+    * @return the number of changes replaced by a later change of the same key in a batch
+    */
+   public long coalesced() {
+      return coalesced.sum();
+   }
+
+   public long delivered() {
+      return delivered.sum();
+   }
+
+   public long batches() {
+      return batches.sum();
+   }
+
+   /**
+    * @return the number of batches whose listener threw an exception
+    */
+   public long failures() {
+      return failures.sum();
+   }
+
+   /**
+    * @return the longest time between a write and the delivery of its change
+    */
+   public Duration maxLag() {
+      return Duration.ofNanos(maxLagNanos.get());
+   }
+
+   /**
+    * Removes the dispatcher from the cache, stops accepting changes and waits until the buffered ones are delivered.
+    */
+   @Override
+   public void close() throws InterruptedException {
+      cache.removeListener(this);
+      running = false;
+      dispatcher.join();
+   }
+}
@@ -8,21 +8,28 @@ import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.tutorial.simple.listen.CoalescingDispatcher.Change;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class InfinispanListen {
 
    static DefaultCacheManager cacheManager;
    static Cache<String, String> cache;
    static MyListener listener;
+   static Cache<String, String> sensorCache;
+   static MyBatchListener batchListener;
+   static CoalescingDispatcher<String, String> dispatcher;
 
-   public static void main(String[] args) {
+   public static void main(String[] args) throws InterruptedException {
       createAndStartComponents();
       manipulateCache();
+      updateFrequently(1000);
       stop();
    }
 
@@ -33,6 +40,18 @@ public class InfinispanListen {
       cache.put("key1", "newValue");
    }
 
+   static void updateFrequently(int updates) throws InterruptedException {
+      // Update the same few keys many times, the batch listener only sees the last value of each key
+      for (int i = 0; i < updates; i++) {
+         sensorCache.put("sensor" + i % 10, "reading" + i);
+      }
+      // Wait for the buffered changes, the dispatcher keeps running
+      dispatcher.flush();
+      System.out.printf("%d changes delivered in %d batches, %d coalesced, %d dropped, %d failed batches, max lag %d ms%n",
+            dispatcher.delivered(), dispatcher.batches(), dispatcher.coalesced(), dispatcher.dropped(),
+            dispatcher.failures(), dispatcher.maxLag().toMillis());
+   }
+
    static void createAndStartComponents() {
       // Construct a simple local cache manager with default configuration
       cacheManager = new DefaultCacheManager();
@@ -44,9 +63,18 @@ public class InfinispanListen {
       listener = new MyListener();
       // Register a listener
       cache.addListener(listener);
+
+      // Register a listener that gets the changes in batches, away from the writing threads
+      cacheManager.defineConfiguration("sensors", new ConfigurationBuilder().build());
+      sensorCache = cacheManager.getCache("sensors");
+      batchListener = new MyBatchListener();
+      dispatcher = new CoalescingDispatcher<>(sensorCache, batchListener);
    }
 
-   static void stop() {
+   static void stop() throws InterruptedException {
+      if (dispatcher != null) {
+         dispatcher.close();
+      }
       if (cacheManager != null) {
          // Stop the cache manager and release all resources
          cacheManager.stop();
@@ -74,4 +102,17 @@ public class InfinispanListen {
             System.out.printf("About to modify %s\n", event.getKey());
       }
    }
+
+   public static class MyBatchListener implements Consumer<List<Change<String, String>>> {
+      Map<String, String> latest = Collections.synchronizedMap(new HashMap<>());
+
+      @Override
+      public void accept(List<Change<String, String>> changes) {
+         // Runs in the dispatcher thread, the writers do not wait for it
+         for (Change<String, String> change : changes) {
+            latest.put(change.key(), change.value());
+         }
+         System.out.printf("Received %d changes\n", changes.size());
+      }
+   }
 }
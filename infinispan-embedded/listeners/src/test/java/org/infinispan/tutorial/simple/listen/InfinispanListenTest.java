@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanListenTest {
 
@@ -15,7 +16,7 @@ public class InfinispanListenTest {
     }
 
     @AfterAll
-    public static void stop() {
+    public static void stop() throws Exception {
         InfinispanListen.stop();
     }
 
@@ -31,4 +32,27 @@ public class InfinispanListenTest {
         assertEquals(2, InfinispanListen.listener.created.size());
         assertEquals(1, InfinispanListen.listener.updated.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCoalescingDispatcher() throws Exception {
+        CoalescingDispatcher<String, String> dispatcher = InfinispanListen.dispatcher;
+        assertNotNull(dispatcher);
+
+        InfinispanListen.updateFrequently(1000);
+
+        assertEquals(0, dispatcher.queueDepth());
+        assertEquals(0, dispatcher.dropped());
+        // Every write is either delivered or merged with a later write of the same key
+        assertEquals(1000, dispatcher.delivered() + dispatcher.coalesced());
+        assertTrue(dispatcher.coalesced() > 0);
+        assertEquals(10, InfinispanListen.batchListener.latest.size());
+        assertEquals("reading999", InfinispanListen.batchListener.latest.get("sensor9"));
+        assertEquals(0, dispatcher.failures());
+
+        // The dispatcher is still running after a flush
+        InfinispanListen.sensorCache.put("sensor0", "latest");
+        dispatcher.flush();
+        assertEquals("latest", InfinispanListen.batchListener.latest.get("sensor0"));
+        assertEquals(0, dispatcher.dropped());
+    }
+}
@@ -6,9 +6,15 @@ import org.infinispan.lock.api.ClusteredLock;
 import org.infinispan.lock.api.ClusteredLockManager;
 import org.infinispan.manager.DefaultCacheManager;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -18,10 +24,16 @@ public class InfinispanClusteredLock {
    static ClusteredLockManager clusteredLockManager;
    static ClusteredLock lock;
    static AtomicInteger counter;
+   static LeasedClusteredLock leasedLock;
+   static int leasedCounter;
+   static StripedClusteredLocks accountLocks;
+   static Map<String, Integer> accounts;
 
    public static void main(String[] args) throws Exception {
       createAndStartComponents();
       changeCounterWithLocks();
+      changeCounterWithLeasedLock(4, 1000);
+      transferBetweenAccounts(4, 1000);
       stop();
    }
 
@@ -63,6 +75,80 @@ public class InfinispanClusteredLock {
       }).get(10, TimeUnit.SECONDS);
    }
 
+   static void changeCounterWithLeasedLock(int threads, int increments) throws InterruptedException {
+      // Threads of this node take turns with the lock, the clustered lock is only acquired when the lease is over
+      List<Thread> workers = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+         Thread worker = new Thread(() -> {
+            for (int j = 0; j < increments; j++) {
+               leasedLock.lock();
+               try {
+                  leasedCounter++;
+               } finally {
+                  leasedLock.unlock();
+               }
+            }
+         });
+         workers.add(worker);
+         worker.start();
+      }
+      for (Thread worker : workers) {
+         worker.join();
+      }
+
+      System.out.printf("Value of the leased counter is %d, the clustered lock was acquired %d times and handed over locally %d times%n",
+            leasedCounter, leasedLock.clusterAcquisitions(), leasedLock.localHandoffs());
+   }
+
+   static int transferBetweenAccounts(int threads, int transfers) throws InterruptedException {
+      // Each transfer locks the stripes of both accounts, in the same order for every caller
+      List<Thread> workers = new ArrayList<>();
+      int[] done = new int[threads];
+      List<String> names = List.copyOf(accounts.keySet());
+      for (int i = 0; i < threads; i++) {
+         int worker = i;
+         Thread thread = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int j = 0; j < transfers; j++) {
+               String from = names.get(random.nextInt(names.size()));
+               String to = names.get(random.nextInt(names.size()));
+               if (from.equals(to)) {
+                  continue;
+               }
+               try {
+                  if (accountLocks.tryLock(Set.of(from, to), 1, TimeUnit.SECONDS)) {
+                     try {
+                        accounts.put(from, accounts.get(from) - 1);
+                        accounts.put(to, accounts.get(to) + 1);
+                        done[worker]++;
+                     } finally {
+                        accountLocks.unlock(Set.of(from, to));
+                     }
+                  }
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+               }
+            }
+         });
+         workers.add(thread);
+         thread.start();
+      }
+      int total = 0;
+      for (int i = 0; i < threads; i++) {
+         workers.get(i).join();
+         total += done[i];
+      }
+
+      System.out.printf("%d transfers done, the balance of all accounts is %d%n", total,
+            accounts.values().stream().mapToInt(Integer::intValue).sum());
+      for (StripedClusteredLocks.StripeStats stats : accountLocks.stats()) {
+         System.out.printf("Stripe %d: %d acquisitions, %d timeouts, %d µs max wait%n", stats.stripe(),
+               stats.acquisitions(), stats.timeouts(), TimeUnit.NANOSECONDS.toMicros(stats.maxWaitNanos()));
+      }
+      return total;
+   }
+
    static void createAndStartComponents() {
       // Setup up a clustered cache manager
       GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
@@ -80,9 +166,24 @@ public class InfinispanClusteredLock {
       lock = clusteredLockManager.get("lock");
 
       counter = new AtomicInteger(0);
+
+      // Define a lock shared by the threads of this node through a lease
+      clusteredLockManager.defineLock("leased-lock");
+      leasedLock = new LeasedClusteredLock(clusteredLockManager.get("leased-lock"));
+      leasedCounter = 0;
+
+      // Map the accounts onto a pool of 8 locks instead of defining one lock per account
+      accountLocks = new StripedClusteredLocks(clusteredLockManager, "account-lock", 8);
+      accounts = new ConcurrentHashMap<>();
+      for (int i = 0; i < 100; i++) {
+         accounts.put("account-" + i, 100);
+      }
    }
 
    static void stop() {
+      if (leasedLock != null) {
+         leasedLock.close();
+      }
       if (cacheManager != null) {
          // Stop the cache manager
          cacheManager.stop();
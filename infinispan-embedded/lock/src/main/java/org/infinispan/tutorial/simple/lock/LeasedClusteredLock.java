@@ -0,0 +1,194 @@
+package org.infinispan.tutorial.simple.lock;
+
+import org.infinispan.lock.api.ClusteredLock;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking facade over a {@link ClusteredLock} that keeps the clustered lock while threads of this node are waiting
+ * for it.
+ * <p>
+ * The first local caller acquires the clustered lock and starts a lease. When the holder unlocks and other local
+ * threads are waiting, the lock is handed to the longest waiting one without a cluster round trip. The clustered
+ * lock is released when no local thread is waiting anymore, or when the lease has expired so that other nodes get
+ * their turn. The lock is reentrant for the thread holding it.
+ */
+public class LeasedClusteredLock implements AutoCloseable {
+
+   public static final Duration DEFAULT_LEASE = Duration.ofMillis(100);
+
+   private final ClusteredLock clusteredLock;
+   private final long leaseNanos;
+   // Fair, so local waiters get the lock in FIFO order
+   private final ReentrantLock localLock = new ReentrantLock(true);
+   // Threads holding or waiting for the local lock
+   private final AtomicInteger demand = new AtomicInteger();
+   private final LongAdder clusterAcquisitions = new LongAdder();
+   private final LongAdder localHandoffs = new LongAdder();
+
+   // Guarded by localLock
+   private boolean leaseHeld;
+   private long leaseExpiry;
+
+   public LeasedClusteredLock(ClusteredLock clusteredLock) {
+      this(clusteredLock, DEFAULT_LEASE);
+   }
+
+   public LeasedClusteredLock(ClusteredLock clusteredLock, Duration lease) {
+      this.clusteredLock = clusteredLock;
+      this.leaseNanos = lease.toNanos();
+   }
+
+   public void lock() {
+      if (localLock.isHeldByCurrentThread()) {
+         // Reentrant acquisition, the thread is already counted in the demand
+         localLock.lock();
+         return;
+      }
+      demand.incrementAndGet();
+      localLock.lock();
+      if (reuseLease()) {
+         return;
+      }
+      try {
+         clusteredLock.lock().join();
+      } catch (RuntimeException e) {
+         abandon();
+         throw e;
+      }
+      startLease();
+   }
+
+   public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+      if (localLock.isHeldByCurrentThread()) {
+         // Reentrant acquisition, the thread is already counted in the demand
+         localLock.lock();
+         return true;
+      }
+      long deadline = System.nanoTime() + unit.toNanos(time);
+      demand.incrementAndGet();
+      if (!localLock.tryLock(time, unit)) {
+         demand.decrementAndGet();
+         releaseIfIdle();
+         return false;
+      }
+      if (reuseLease()) {
+         return true;
+      }
+      boolean acquired;
+      try {
+         acquired = clusteredLock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).get();
+      } catch (ExecutionException e) {
+         abandon();
+         throw new IllegalStateException(e.getCause());
+      } catch (InterruptedException e) {
+         abandon();
+         throw e;
+      }
+      if (!acquired) {
+         abandon();
+         return false;
+      }
+      startLease();
+      return true;
+   }
+
+   public void unlock() {
+      if (!localLock.isHeldByCurrentThread()) {
+         throw new IllegalMonitorStateException("The lock is not held by the current thread");
+      }
+      try {
+         if (localLock.getHoldCount() == 1) {
+            // Keep the lease only for local waiters, and only while it has not expired
+            if (demand.decrementAndGet() == 0 || System.nanoTime() - leaseExpiry > 0) {
+               releaseLease();
+            }
+         }
+      } finally {
+         // Even when the clustered lock could not be released, the local threads must not block forever
+         localLock.unlock();
+      }
+   }
+
+   /**
+    * @return true when this node holds the clustered lock
+    */
+   public boolean isLeaseHeld() {
+      localLock.lock();
+      try {
+         return leaseHeld;
+      } finally {
+         localLock.unlock();
+      }
+   }
+
+   /**
+    * @return the number of times the clustered lock was acquired
+    */
+   public long clusterAcquisitions() {
+      return clusterAcquisitions.sum();
+   }
+
+   /**
+    * @return the number of times the lock was handed to a local waiter without contacting the cluster
+    */
+   public long localHandoffs() {
+      return localHandoffs.sum();
+   }
+
+   @Override
+   public void close() {
+      localLock.lock();
+      try {
+         releaseLease();
+      } finally {
+         localLock.unlock();
+      }
+   }
+
+   private boolean reuseLease() {
+      if (leaseHeld) {
+         localHandoffs.increment();
+      }
+      return leaseHeld;
+   }
+
+   private void startLease() {
+      leaseHeld = true;
+      leaseExpiry = System.nanoTime() + leaseNanos;
+      clusterAcquisitions.increment();
+   }
+
+   private void releaseLease() {
+      if (leaseHeld) {
+         // Not held anymore even if the unlock fails, the next holder acquires the clustered lock again
+         leaseHeld = false;
+         clusteredLock.unlock().join();
+      }
+   }
+
+   // The current thread got the local lock but not the clustered lock
+   private void abandon() {
+      demand.decrementAndGet();
+      localLock.unlock();
+      releaseIfIdle();
+   }
+
+   // A waiter gave up, it may have been the one the last holder kept the lease for
+   private void releaseIfIdle() {
+      if (demand.get() == 0 && localLock.tryLock()) {
+         try {
+            if (demand.get() == 0) {
+               releaseLease();
+            }
+         } finally {
+            localLock.unlock();
+         }
+      }
+   }
+}
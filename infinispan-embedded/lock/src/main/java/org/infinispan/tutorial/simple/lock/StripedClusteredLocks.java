@@ -0,0 +1,146 @@
+package org.infinispan.tutorial.simple.lock;
+
+import org.infinispan.lock.api.ClusteredLock;
+import org.infinispan.lock.api.ClusteredLockManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maps any number of keys onto a fixed pool of clustered locks, the stripes.
+ * <p>
+ * Keys with the same stripe exclude each other, so the pool size trades lock metadata for false contention. A key
+ * is mapped with its {@code hashCode}, which must be the same on every node: strings, numbers and records of those
+ * are fine. Several keys are locked in ascending stripe order, so two callers locking overlapping keys cannot
+ * deadlock.
+ */
+public class StripedClusteredLocks {
+
+   /**
+    * @param stripe       the index of the stripe
+    * @param acquisitions the number of times the stripe was acquired
+    * @param timeouts     the number of times the stripe could not be acquired in time
+    * @param waitNanos    the total time spent waiting for the stripe
+    * @param maxWaitNanos the longest time spent waiting for the stripe
+    */
+   public record StripeStats(int stripe, long acquisitions, long timeouts, long waitNanos, long maxWaitNanos) {
+   }
+
+   private final ClusteredLock[] locks;
+   private final LongAdder[] acquisitions;
+   private final LongAdder[] timeouts;
+   private final LongAdder[] waitNanos;
+   private final LongAccumulator[] maxWaitNanos;
+
+   public StripedClusteredLocks(ClusteredLockManager lockManager, String name, int stripes) {
+      if (stripes <= 0) {
+         throw new IllegalArgumentException("The number of stripes must be positive");
+      }
+      locks = new ClusteredLock[stripes];
+      acquisitions = new LongAdder[stripes];
+      timeouts = new LongAdder[stripes];
+      waitNanos = new LongAdder[stripes];
+      maxWaitNanos = new LongAccumulator[stripes];
+      for (int i = 0; i < stripes; i++) {
+         // Another node may have defined the stripe already
+         lockManager.defineLock(name + "-" + i);
+         locks[i] = lockManager.get(name + "-" + i);
+         acquisitions[i] = new LongAdder();
+         timeouts[i] = new LongAdder();
+         waitNanos[i] = new LongAdder();
+         maxWaitNanos[i] = new LongAccumulator(Math::max, 0);
+      }
+   }
+
+   public int stripes() {
+      return locks.length;
+   }
+
+   public int stripeOf(Object key) {
+      int h = key.hashCode();
+      // Spread the high bits, like HashMap does
+      return Math.floorMod(h ^ (h >>> 16), locks.length);
+   }
+
+   public boolean tryLock(Object key, long time, TimeUnit unit) throws InterruptedException {
+      return tryLock(List.of(key), time, unit);
+   }
+
+   /**
+    * Locks the stripes of all the keys, or none of them.
+    *
+    * @return true when all the stripes were acquired before the timeout
+    */
+   public boolean tryLock(Collection<?> keys, long time, TimeUnit unit) throws InterruptedException {
+      long deadline = System.nanoTime() + unit.toNanos(time);
+      List<Integer> acquired = new ArrayList<>();
+      try {
+         for (int stripe : stripesOf(keys)) {
+            if (!tryLockStripe(stripe, deadline)) {
+               return false;
+            }
+            acquired.add(stripe);
+         }
+         acquired = null;
+         return true;
+      } finally {
+         if (acquired != null) {
+            unlockStripes(acquired);
+         }
+      }
+   }
+
+   public void unlock(Object key) {
+      unlock(List.of(key));
+   }
+
+   public void unlock(Collection<?> keys) {
+      unlockStripes(new ArrayList<>(stripesOf(keys)));
+   }
+
+   public List<StripeStats> stats() {
+      List<StripeStats> stats = new ArrayList<>(locks.length);
+      for (int i = 0; i < locks.length; i++) {
+         stats.add(new StripeStats(i, acquisitions[i].sum(), timeouts[i].sum(), waitNanos[i].sum(),
+               maxWaitNanos[i].get()));
+      }
+      return stats;
+   }
+
+   private SortedSet<Integer> stripesOf(Collection<?> keys) {
+      SortedSet<Integer> stripes = new TreeSet<>();
+      for (Object key : keys) {
+         stripes.add(stripeOf(key));
+      }
+      return stripes;
+   }
+
+   private boolean tryLockStripe(int stripe, long deadline) throws InterruptedException {
+      long start = System.nanoTime();
+      boolean locked;
+      try {
+         locked = locks[stripe].tryLock(Math.max(0, deadline - start), TimeUnit.NANOSECONDS).get();
+      } catch (ExecutionException e) {
+         throw new IllegalStateException(e.getCause());
+      }
+      long waited = System.nanoTime() - start;
+      waitNanos[stripe].add(waited);
+      maxWaitNanos[stripe].accumulate(waited);
+      (locked ? acquisitions : timeouts)[stripe].increment();
+      return locked;
+   }
+
+   private void unlockStripes(List<Integer> stripes) {
+      // Release in the reverse order of acquisition
+      for (int i = stripes.size() - 1; i >= 0; i--) {
+         locks[stripes.get(i)].unlock().join();
+      }
+   }
+}
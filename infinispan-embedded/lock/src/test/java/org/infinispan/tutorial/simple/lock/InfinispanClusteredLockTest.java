@@ -4,8 +4,12 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanClusteredLockTest {
 
@@ -31,4 +35,51 @@ public class InfinispanClusteredLockTest {
         assertEquals(3, InfinispanClusteredLock.counter.get());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLeasedClusteredLock() throws Exception {
+        LeasedClusteredLock leasedLock = InfinispanClusteredLock.leasedLock;
+        assertNotNull(leasedLock);
+        long acquisitions = leasedLock.clusterAcquisitions();
+        long handoffs = leasedLock.localHandoffs();
+
+        InfinispanClusteredLock.changeCounterWithLeasedLock(4, 100);
+
+        assertEquals(400, InfinispanClusteredLock.leasedCounter);
+        assertTrue(leasedLock.clusterAcquisitions() > acquisitions);
+        assertEquals(400, leasedLock.clusterAcquisitions() - acquisitions + leasedLock.localHandoffs() - handoffs);
+        // Nobody is waiting anymore, so the clustered lock is released
+        assertFalse(leasedLock.isLeaseHeld());
+    }
+
+    @Test
+    public void testLeasedClusteredLockIsReentrant() throws Exception {
+        LeasedClusteredLock leasedLock = InfinispanClusteredLock.leasedLock;
+        assertTrue(leasedLock.tryLock(1, TimeUnit.SECONDS));
+        try {
+            assertTrue(leasedLock.tryLock(1, TimeUnit.SECONDS));
+            leasedLock.unlock();
+            leasedLock.lock();
+            leasedLock.unlock();
+            assertTrue(leasedLock.isLeaseHeld());
+        } finally {
+            leasedLock.unlock();
+        }
+        // The reentrant acquisitions are not counted as waiters, so the clustered lock is released
+        assertFalse(leasedLock.isLeaseHeld());
+    }
+
+    @Test
+    public void testStripedClusteredLocks() throws Exception {
+        StripedClusteredLocks accountLocks = InfinispanClusteredLock.accountLocks;
+        assertNotNull(accountLocks);
+        assertEquals(8, accountLocks.stripes());
+
+        int transfers = InfinispanClusteredLock.transferBetweenAccounts(4, 100);
+
+        assertTrue(transfers > 0);
+        // Money moves between accounts but is never lost
+        assertEquals(100 * 100, InfinispanClusteredLock.accounts.values().stream().mapToInt(Integer::intValue).sum());
+        long acquisitions = accountLocks.stats().stream().mapToLong(StripedClusteredLocks.StripeStats::acquisitions).sum();
+        assertTrue(acquisitions >= transfers);
+    }
+}
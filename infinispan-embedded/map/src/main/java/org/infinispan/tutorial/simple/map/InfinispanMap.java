@@ -1,17 +1,25 @@
 package org.infinispan.tutorial.simple.map;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.manager.DefaultCacheManager;
 
 public class InfinispanMap {
 
+   // Maximum memory used by the entries of the off-heap cache, the oldest entries are evicted beyond it
+   static final String OFF_HEAP_MAX_SIZE = "64MB";
+
    static DefaultCacheManager cacheManager;
    static Cache<String, String> cache;
+   static Cache<String, String> offHeapCache;
 
    public static void main(String[] args) {
       createAndStartComponents();
       manipulateLocalCache();
+      manipulateOffHeapCache();
       stop();
    }
 
@@ -22,6 +30,13 @@ public class InfinispanMap {
       System.out.printf("key = %s\n", cache.get("key"));
    }
 
+   static void manipulateOffHeapCache() {
+      // Entries are marshalled and stored outside of the Java heap, so they are not scanned by the garbage collector
+      offHeapCache.put("key", "value");
+      System.out.printf("key = %s, off-heap memory used = %d bytes\n", offHeapCache.get("key"),
+            offHeapCache.getAdvancedCache().getStats().getOffHeapMemoryUsed());
+   }
+
    static void createAndStartComponents() {
       // Construct a simple local cache manager with default configuration
       cacheManager = new DefaultCacheManager();
@@ -29,6 +44,13 @@ public class InfinispanMap {
       cacheManager.defineConfiguration("local", new ConfigurationBuilder().build());
       // Obtain the local cache
       cache = cacheManager.getCache("local");
+      // Define an off-heap cache, bounded in memory
+      ConfigurationBuilder offHeap = new ConfigurationBuilder();
+      offHeap.encoding().mediaType(MediaType.APPLICATION_PROTOSTREAM_TYPE);
+      offHeap.memory().storage(StorageType.OFF_HEAP).maxSize(OFF_HEAP_MAX_SIZE).whenFull(EvictionStrategy.REMOVE);
+      offHeap.statistics().enable();
+      cacheManager.defineConfiguration("off-heap", offHeap.build());
+      offHeapCache = cacheManager.getCache("off-heap");
    }
 
    static void stop() {
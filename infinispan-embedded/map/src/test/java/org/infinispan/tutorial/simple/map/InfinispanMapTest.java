@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanMapTest {
 
@@ -27,4 +28,15 @@ public class InfinispanMapTest {
 
         assertEquals(1, InfinispanMap.cache.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOffHeapMap() {
+        assertNotNull(InfinispanMap.offHeapCache);
+
+        InfinispanMap.manipulateOffHeapCache();
+
+        assertEquals(1, InfinispanMap.offHeapCache.size());
+        assertEquals("value", InfinispanMap.offHeapCache.get("key"));
+        assertTrue(InfinispanMap.offHeapCache.getAdvancedCache().getStats().getOffHeapMemoryUsed() > 0);
+    }
+}
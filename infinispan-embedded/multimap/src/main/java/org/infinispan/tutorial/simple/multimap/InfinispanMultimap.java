@@ -1,9 +1,11 @@
 package org.infinispan.tutorial.simple.multimap;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.manager.DefaultCacheManager;
@@ -16,11 +18,13 @@ public class InfinispanMultimap {
    static DefaultCacheManager cacheManager;
    static MultimapCacheManager multimapCacheManager;
    static MultimapCache<String, String> multimap;
+   static PagedMultimap<String, String> pagedMultimap;
 
    public static void main(String[] args) throws Exception {
        createAndStartComponents();
 
        manipulateMultimap();
+       manipulatePagedMultimap();
        stop();
    }
 
@@ -40,6 +44,19 @@ public class InfinispanMultimap {
               }).get(10, TimeUnit.SECONDS);
     }
 
+    static long manipulatePagedMultimap() {
+        // Add 25000 values to a key in two calls, each value page is one entry in the cache
+        List<String> visitors = IntStream.range(0, 20_000).mapToObj(i -> "visitor-" + i).toList();
+        int pages = pagedMultimap.putAll("visits", visitors);
+        pages += pagedMultimap.putAll("visits", visitors.subList(0, 5_000));
+        System.out.println("Values written in " + pages + " pages");
+
+        // Read the values page by page instead of copying all of them at once
+        long distinct = pagedMultimap.stream("visits").distinct().count();
+        System.out.println("Distinct visitors " + distinct);
+        return distinct;
+    }
+
     static void createAndStartComponents() {
         // Construct a local cache manager with default configuration
         cacheManager = new DefaultCacheManager();
@@ -52,6 +69,10 @@ public class InfinispanMultimap {
 
         // Get the MultimapCache
         multimap = multimapCacheManager.get("multimap");
+
+        // Keys with many values are stored in pages of a regular cache
+        cacheManager.defineConfiguration("paged-multimap", new ConfigurationBuilder().build());
+        pagedMultimap = new PagedMultimap<>(cacheManager.getCache("paged-multimap"));
     }
 
     static void stop() {
@@ -0,0 +1,98 @@
+package org.infinispan.tutorial.simple.multimap;
+
+import org.infinispan.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Multimap that stores the values of a key in pages of a regular cache, for keys with too many values to be read or
+ * written as one collection.
+ * <p>
+ * The entry of the key holds the number of pages, and each page is stored under a {@link PageKey}. Adding values
+ * reserves new page numbers with an atomic {@code merge} of the page count, then writes all the pages with one
+ * {@code putAll}, so concurrent writers never touch the same page.
+ */
+public class PagedMultimap<K, V> {
+
+   public static final int DEFAULT_PAGE_SIZE = 1000;
+
+   public record PageKey<K>(K key, int page) {
+   }
+
+   private final Cache<Object, Object> cache;
+   private final int pageSize;
+
+   public PagedMultimap(Cache<Object, Object> cache) {
+      this(cache, DEFAULT_PAGE_SIZE);
+   }
+
+   public PagedMultimap(Cache<Object, Object> cache, int pageSize) {
+      this.cache = cache;
+      this.pageSize = pageSize;
+   }
+
+   /**
+    * Adds all the values to the key.
+    *
+    * @return the number of pages written
+    */
+   public int putAll(K key, Collection<? extends V> values) {
+      List<List<V>> pages = new ArrayList<>();
+      List<V> current = new ArrayList<>(pageSize);
+      for (V value : values) {
+         current.add(value);
+         if (current.size() == pageSize) {
+            pages.add(current);
+            current = new ArrayList<>(pageSize);
+         }
+      }
+      if (!current.isEmpty()) {
+         pages.add(current);
+      }
+      if (pages.isEmpty()) {
+         return 0;
+      }
+      int first = (Integer) cache.merge(key, pages.size(), (a, b) -> (Integer) a + (Integer) b) - pages.size();
+      Map<Object, Object> entries = new HashMap<>();
+      for (int i = 0; i < pages.size(); i++) {
+         entries.put(new PageKey<>(key, first + i), pages.get(i));
+      }
+      cache.putAll(entries);
+      return pages.size();
+   }
+
+   public int pages(K key) {
+      Object pages = cache.get(key);
+      return pages == null ? 0 : (Integer) pages;
+   }
+
+   /**
+    * @return the values of the page, empty when the page does not exist or is not written yet
+    */
+   @SuppressWarnings("unchecked")
+   public List<V> page(K key, int page) {
+      List<V> values = (List<V>) cache.get(new PageKey<>(key, page));
+      return values == null ? List.of() : values;
+   }
+
+   /**
+    * Streams the values of the key, reading the pages lazily.
+    */
+   public Stream<V> stream(K key) {
+      return IntStream.range(0, pages(key)).mapToObj(page -> page(key, page)).flatMap(List::stream);
+   }
+
+   public void remove(K key) {
+      int pages = pages(key);
+      for (int i = 0; i < pages; i++) {
+         cache.remove(new PageKey<>(key, i));
+      }
+      cache.remove(key);
+   }
+}
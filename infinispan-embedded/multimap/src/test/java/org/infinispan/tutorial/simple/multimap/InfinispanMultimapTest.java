@@ -28,4 +28,19 @@ public class InfinispanMultimapTest {
         InfinispanMultimap.manipulateMultimap();
         assertEquals(3, InfinispanMultimap.multimap.size().get(10, TimeUnit.SECONDS));
     }
+
+    @Test
+    public void testPagedMultimap() {
+        PagedMultimap<String, String> pagedMultimap = InfinispanMultimap.pagedMultimap;
+        assertNotNull(pagedMultimap);
+
+        assertEquals(20_000, InfinispanMultimap.manipulatePagedMultimap());
+
+        assertEquals(25, pagedMultimap.pages("visits"));
+        assertEquals(1000, pagedMultimap.page("visits", 24).size());
+        assertEquals(25_000, pagedMultimap.stream("visits").count());
+
+        pagedMultimap.remove("visits");
+        assertEquals(0, pagedMultimap.stream("visits").count());
+    }
 }
\ No newline at end of file
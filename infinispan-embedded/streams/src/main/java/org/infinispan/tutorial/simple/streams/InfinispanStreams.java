@@ -1,7 +1,12 @@
 package org.infinispan.tutorial.simple.streams;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.manager.DefaultCacheManager;
 
 import java.util.stream.Collectors;
@@ -18,6 +23,8 @@ public class InfinispanStreams {
       streams.storeKeyValues(10);
       int result = streams.mapAndReduceKeys();
       streams.printResult(result);
+      streams.printResult(streams.mapAndReduceKeysToLong());
+      streams.printResult(streams.mapAndReduceKeysInParallel());
       streams.stopDefaultCacheManager();
    }
 
@@ -33,7 +40,27 @@ public class InfinispanStreams {
               .collect(() -> Collectors.summingInt(i -> i.intValue()));
    }
 
-   public void printResult(int result) {
+   public long mapAndReduceKeysToLong() {
+      // Map the keys to primitive longs and sum them, without boxing each number
+      return cache.keySet().stream()
+              .mapToLong(InfinispanStreams::keyNumber)
+              .sum();
+   }
+
+   public long mapAndReduceKeysInParallel() {
+      // Each node processes its segments in parallel, and sends its partial sum to the originator
+      return cache.keySet().stream()
+              .parallel()
+              .mapToLong(InfinispanStreams::keyNumber)
+              .sum();
+   }
+
+   static long keyNumber(String key) {
+      // Parse the number before the "-" in place, instead of creating a substring and an Integer
+      return Long.parseLong(key, 0, key.indexOf('-'), 10);
+   }
+
+   public void printResult(long result) {
       System.out.printf("Result = %d\n", result);
    }
 
@@ -46,6 +73,29 @@ public class InfinispanStreams {
       cache = cm1.getCache("local");
    }
 
+   public void createClusteredCacheManagerAndInitCache() {
+      // Construct a clustered cache manager, the streams run on every node that owns segments of the cache
+      cm1 = new DefaultCacheManager(GlobalConfigurationBuilder.defaultClusteredBuilder().build());
+      // Define distributed cache configuration
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      cm1.defineConfiguration("distributed", builder.build());
+      // Obtain the distributed cache
+      cache = cm1.getCache("distributed");
+   }
+
+   public void createOffHeapCacheManagerAndInitCache() {
+      // Construct a simple local cache manager with default configuration
+      cm1 = new DefaultCacheManager();
+      // Define local cache configuration storing the entries outside of the Java heap
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.encoding().mediaType(MediaType.APPLICATION_PROTOSTREAM_TYPE);
+      builder.memory().storage(StorageType.OFF_HEAP).maxSize("64MB").whenFull(EvictionStrategy.REMOVE);
+      cm1.defineConfiguration("off-heap", builder.build());
+      // Obtain the off-heap cache
+      cache = cm1.getCache("off-heap");
+   }
+
    public void stopDefaultCacheManager() {
       if (cm1 != null) {
          // Stop the cache manager and release all resources
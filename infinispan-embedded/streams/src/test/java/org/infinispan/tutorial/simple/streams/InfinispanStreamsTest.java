@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class InfinispanStreamsTest {
 
@@ -27,4 +28,36 @@ public class InfinispanStreamsTest {
         int result = infinispanStreams.mapAndReduceKeys();
         assertEquals(190, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPrimitiveAndParallelReduction() {
+        infinispanStreams.storeKeyValues(20);
+        assertEquals(190, infinispanStreams.mapAndReduceKeysToLong());
+        assertEquals(190, infinispanStreams.mapAndReduceKeysInParallel());
+    }
+
+    @Test
+    public void testKeyNumberRejectsNonDigits() {
+        assertEquals(42, InfinispanStreams.keyNumber("42-key"));
+        assertThrows(NumberFormatException.class, () -> InfinispanStreams.keyNumber("4x-key"));
+    }
+
+    @Test
+    public void testReductionOnDistributedCache() {
+        infinispanStreams.stopDefaultCacheManager();
+        infinispanStreams.createClusteredCacheManagerAndInitCache();
+        infinispanStreams.storeKeyValues(20);
+        assertEquals(190, infinispanStreams.mapAndReduceKeys());
+        assertEquals(190, infinispanStreams.mapAndReduceKeysToLong());
+        assertEquals(190, infinispanStreams.mapAndReduceKeysInParallel());
+    }
+
+    @Test
+    public void testReductionOnOffHeapCache() {
+        infinispanStreams.stopDefaultCacheManager();
+        infinispanStreams.createOffHeapCacheManagerAndInitCache();
+        infinispanStreams.storeKeyValues(20);
+        assertEquals(190, infinispanStreams.mapAndReduceKeys());
+        assertEquals(190, infinispanStreams.mapAndReduceKeysToLong());
+    }
+}
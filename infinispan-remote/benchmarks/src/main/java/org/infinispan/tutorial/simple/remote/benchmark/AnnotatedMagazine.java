@@ -0,0 +1,13 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import org.infinispan.protostream.annotations.Proto;
+
+import java.util.List;
+
+/**
+ * Same message as the Magazine of the programmatic marshalling tutorial, with a marshaller generated from the
+ * {@code @Proto} annotation.
+ */
+@Proto
+public record AnnotatedMagazine(String name, int publicationYear, int publicationMonth, List<String> stories) {
+}
@@ -0,0 +1,10 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.protostream.annotations.ProtoSchema;
+
+@ProtoSchema(schemaFileName = "annotated_magazine.proto",
+      schemaPackageName = "magazine_benchmark",
+      includeClasses = AnnotatedMagazine.class)
+public interface AnnotatedMagazineSchema extends GeneratedSchema {
+}
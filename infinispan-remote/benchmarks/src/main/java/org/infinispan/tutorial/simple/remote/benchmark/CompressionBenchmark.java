@@ -0,0 +1,123 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.ProtoStreamMarshaller;
+import org.infinispan.protostream.FileDescriptorSource;
+import org.infinispan.protostream.SerializationContext;
+import org.infinispan.protostream.schema.Schema;
+import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
+import org.infinispan.tutorial.simple.remote.marshalling.CompressingMarshaller;
+import org.infinispan.tutorial.simple.remote.marshalling.InfinispanProgrammaticProtostreamMarshalling;
+import org.infinispan.tutorial.simple.remote.marshalling.Magazine;
+import org.infinispan.tutorial.simple.remote.marshalling.MagazineMarshaller;
+import org.infinispan.tutorial.simple.remote.marshalling.MagazineSchemaCreator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_CONFIG;
+
+/**
+ * Measures put and get latency of {@link Magazine} values with and without the {@link CompressingMarshaller}.
+ * <p>
+ * The size of a value on the wire, with and without compression, is printed when the trial starts.
+ * Run with {@code mvn exec:exec -Dbenchmark=CompressionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class CompressionBenchmark {
+
+   static final String PLAIN_CACHE_NAME = "compressionBenchmarkPlain";
+   static final String COMPRESSED_CACHE_NAME = "compressionBenchmarkCompressed";
+   static final int KEYS = 1000;
+
+   @Param({"false", "true"})
+   public boolean compressed;
+
+   // Number of stories of about 100 characters each
+   @Param({"5", "50", "500"})
+   public int stories;
+
+   RemoteCacheManager cacheManager;
+   RemoteCache<String, Magazine> cache;
+   Magazine magazine;
+
+   @Setup(Level.Trial)
+   public void connect() throws Exception {
+      Schema schema = MagazineSchemaCreator.magazineSchema();
+      ProtoStreamMarshaller marshaller = new ProtoStreamMarshaller();
+      SerializationContext serializationContext = marshaller.getSerializationContext();
+      serializationContext.registerProtoFiles(FileDescriptorSource.fromString(schema.getName(), schema.toString()));
+      serializationContext.registerMarshaller(new MagazineMarshaller());
+      CompressingMarshaller compressingMarshaller = new CompressingMarshaller(marshaller);
+
+      ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
+      builder.marshaller(marshaller);
+      builder.remoteCache(PLAIN_CACHE_NAME)
+            .configuration(TUTORIAL_CACHE_CONFIG.replace("CACHE_NAME", PLAIN_CACHE_NAME));
+      builder.remoteCache(COMPRESSED_CACHE_NAME)
+            .configuration(InfinispanProgrammaticProtostreamMarshalling.COMPRESSED_CACHE_CONFIG
+                  .replace("CACHE_NAME", COMPRESSED_CACHE_NAME))
+            .marshaller(compressingMarshaller);
+      cacheManager = TutorialsConnectorHelper.connect(builder);
+      cache = cacheManager.getCache(compressed ? COMPRESSED_CACHE_NAME : PLAIN_CACHE_NAME);
+
+      List<String> text = IntStream.range(0, stories)
+            .mapToObj(i -> "Story " + i + ": a long article about caching, marshalling and the cost of sending bytes.")
+            .toList();
+      magazine = new Magazine("BENCHMARK MONTHLY", YearMonth.of(2024, 1), text);
+      for (int i = 0; i < KEYS; i++) {
+         cache.put(key(i), magazine);
+      }
+      printSize("ProtoStream", marshaller);
+      printSize("Compressed ProtoStream", compressingMarshaller);
+   }
+
+   private void printSize(String name, Marshaller marshaller) throws Exception {
+      System.out.printf("%n%s value size: %d bytes%n", name, marshaller.objectToByteBuffer(magazine).length);
+   }
+
+   @TearDown(Level.Trial)
+   public void disconnect() {
+      TutorialsConnectorHelper.stop(cacheManager);
+   }
+
+   @Benchmark
+   public void put() {
+      cache.put(key(ThreadLocalRandom.current().nextInt(KEYS)), magazine);
+   }
+
+   @Benchmark
+   public Magazine get() {
+      return cache.get(key(ThreadLocalRandom.current().nextInt(KEYS)));
+   }
+
+   private static String key(int i) {
+      return "magazine-" + i;
+   }
+}
@@ -0,0 +1,52 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import java.util.Random;
+
+/**
+ * Key access patterns used by the benchmarks.
+ * <p>
+ * Each distribution creates a {@link KeyGenerator} returning keys in the range {@code [0, keySpace)}.
+ * Generators are immutable and can be shared by all the benchmark threads, each thread passing its own {@link Random}.
+ */
+public enum KeyDistribution {
+
+   /**
+    * Every key has the same probability. The worst case for a near cache smaller than the key space.
+    */
+   UNIFORM {
+      @Override
+      public KeyGenerator generator(int keySpace) {
+         return random -> random.nextInt(keySpace);
+      }
+   },
+
+   /**
+    * 80% of the operations hit 20% of the keys, the remaining operations are spread over the cold keys.
+    */
+   HOTSPOT {
+      @Override
+      public KeyGenerator generator(int keySpace) {
+         int hotKeys = Math.max(1, keySpace / 5);
+         return random -> random.nextDouble() < 0.8
+               ? random.nextInt(hotKeys)
+               : hotKeys + random.nextInt(Math.max(1, keySpace - hotKeys));
+      }
+   },
+
+   /**
+    * Zipfian popularity with skew 0.99, the access pattern commonly observed for web content and product catalogs.
+    */
+   ZIPFIAN {
+      @Override
+      public KeyGenerator generator(int keySpace) {
+         return new ZipfianGenerator(keySpace, ZipfianGenerator.DEFAULT_SKEW);
+      }
+   };
+
+   public abstract KeyGenerator generator(int keySpace);
+
+   @FunctionalInterface
+   public interface KeyGenerator {
+      int nextKey(Random random);
+   }
+}
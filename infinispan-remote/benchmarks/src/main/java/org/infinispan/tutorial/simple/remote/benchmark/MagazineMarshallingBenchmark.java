@@ -0,0 +1,112 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import org.infinispan.protostream.BaseMarshaller;
+import org.infinispan.protostream.FileDescriptorSource;
+import org.infinispan.protostream.ProtobufUtil;
+import org.infinispan.protostream.SerializationContext;
+import org.infinispan.protostream.schema.Schema;
+import org.infinispan.tutorial.simple.remote.marshalling.Magazine;
+import org.infinispan.tutorial.simple.remote.marshalling.MagazineMarshaller;
+import org.infinispan.tutorial.simple.remote.marshalling.MagazineRawMarshaller;
+import org.infinispan.tutorial.simple.remote.marshalling.MagazineSchemaCreator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the codecs available for the Magazine message: the {@link MagazineMarshaller} based on the
+ * {@code MessageMarshaller} API, the tag based {@link MagazineRawMarshaller} and the marshaller generated from the
+ * {@code @Proto} annotation.
+ * <p>
+ * No server is needed. Run with {@code mvn exec:exec -Dbenchmark="MagazineMarshallingBenchmark -prof gc"} to see
+ * the allocation rate of each codec next to its time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MagazineMarshallingBenchmark {
+
+   @Param({"1", "10", "100"})
+   public int stories;
+
+   SerializationContext messageContext;
+   SerializationContext rawContext;
+   SerializationContext annotatedContext;
+   Magazine magazine;
+   AnnotatedMagazine annotatedMagazine;
+   byte[] messageBytes;
+   byte[] rawBytes;
+   byte[] annotatedBytes;
+
+   @Setup
+   public void setup() throws IOException {
+      messageContext = magazineContext(new MagazineMarshaller());
+      rawContext = magazineContext(new MagazineRawMarshaller());
+      annotatedContext = ProtobufUtil.newSerializationContext();
+      AnnotatedMagazineSchema schema = new AnnotatedMagazineSchemaImpl();
+      schema.registerSchema(annotatedContext);
+      schema.registerMarshallers(annotatedContext);
+
+      List<String> text = IntStream.range(0, stories).mapToObj(i -> "Story number " + i).toList();
+      magazine = new Magazine("TIME", YearMonth.of(1997, 4), text);
+      annotatedMagazine = new AnnotatedMagazine("TIME", 1997, 4, text);
+      messageBytes = ProtobufUtil.toByteArray(messageContext, magazine);
+      rawBytes = ProtobufUtil.toByteArray(rawContext, magazine);
+      annotatedBytes = ProtobufUtil.toByteArray(annotatedContext, annotatedMagazine);
+   }
+
+   private static SerializationContext magazineContext(BaseMarshaller<Magazine> marshaller) {
+      Schema schema = MagazineSchemaCreator.magazineSchema();
+      SerializationContext context = ProtobufUtil.newSerializationContext();
+      context.registerProtoFiles(FileDescriptorSource.fromString(schema.getName(), schema.toString()));
+      context.registerMarshaller(marshaller);
+      return context;
+   }
+
+   @Benchmark
+   public byte[] writeMessageMarshaller() throws IOException {
+      return ProtobufUtil.toByteArray(messageContext, magazine);
+   }
+
+   @Benchmark
+   public byte[] writeRawMarshaller() throws IOException {
+      return ProtobufUtil.toByteArray(rawContext, magazine);
+   }
+
+   @Benchmark
+   public byte[] writeAnnotatedMarshaller() throws IOException {
+      return ProtobufUtil.toByteArray(annotatedContext, annotatedMagazine);
+   }
+
+   @Benchmark
+   public Magazine readMessageMarshaller() throws IOException {
+      return ProtobufUtil.fromByteArray(messageContext, messageBytes, Magazine.class);
+   }
+
+   @Benchmark
+   public Magazine readRawMarshaller() throws IOException {
+      return ProtobufUtil.fromByteArray(rawContext, rawBytes, Magazine.class);
+   }
+
+   @Benchmark
+   public AnnotatedMagazine readAnnotatedMarshaller() throws IOException {
+      return ProtobufUtil.fromByteArray(annotatedContext, annotatedBytes, AnnotatedMagazine.class);
+   }
+}
@@ -0,0 +1,136 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.jmx.RemoteCacheClientStatisticsMXBean;
+import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_CONFIG;
+
+/**
+ * Measures reads on a cache with an invalidated near cache.
+ * <p>
+ * The benchmark sweeps the key distribution, the near cache size and the bloom filter, and reports the throughput
+ * ({@link #get}) and the latency percentiles ({@link #getLatency}, see p0.99 in the JMH output). The near cache hit
+ * ratio of every iteration is printed from the client statistics.
+ * <p>
+ * Run with {@code mvn exec:exec -Dbenchmark=NearCacheBenchmark}. Use {@code -p} JMH options to change the parameters,
+ * for example {@code -Dbenchmark="NearCacheBenchmark -p keySpace=10000000"}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class NearCacheBenchmark {
+
+   static final String CACHE_NAME = "nearCacheBenchmark";
+   static final int LOAD_BATCH_SIZE = 10_000;
+
+   @Param({"ZIPFIAN", "HOTSPOT", "UNIFORM"})
+   public KeyDistribution distribution;
+
+   @Param({"1000000"})
+   public int keySpace;
+
+   @Param({"1000", "10000", "100000"})
+   public int nearCacheMaxEntries;
+
+   @Param({"true", "false"})
+   public boolean nearCacheUseBloomFilter;
+
+   RemoteCacheManager cacheManager;
+   RemoteCache<Integer, String> cache;
+   KeyDistribution.KeyGenerator keys;
+
+   @Setup(Level.Trial)
+   public void connect() {
+      ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
+      // Client statistics track near cache hits and misses
+      builder.statistics().enable();
+      builder.remoteCache(CACHE_NAME)
+            .configuration(TUTORIAL_CACHE_CONFIG.replace("CACHE_NAME", CACHE_NAME))
+            .nearCacheMode(NearCacheMode.INVALIDATED)
+            .nearCacheMaxEntries(nearCacheMaxEntries)
+            .nearCacheUseBloomFilter(nearCacheUseBloomFilter);
+      cacheManager = TutorialsConnectorHelper.connect(builder);
+      cache = cacheManager.getCache(CACHE_NAME);
+      load();
+      keys = distribution.generator(keySpace);
+   }
+
+   private void load() {
+      // The data survives between trials when running against an external server
+      if (cache.size() == keySpace) {
+         return;
+      }
+      cache.clear();
+      Map<Integer, String> batch = new HashMap<>(LOAD_BATCH_SIZE * 2);
+      for (int i = 0; i < keySpace; i++) {
+         batch.put(i, "value-" + i);
+         if (batch.size() == LOAD_BATCH_SIZE) {
+            cache.putAll(batch);
+            batch.clear();
+         }
+      }
+      if (!batch.isEmpty()) {
+         cache.putAll(batch);
+      }
+   }
+
+   @TearDown(Level.Iteration)
+   public void printHitRatio() {
+      RemoteCacheClientStatisticsMXBean stats = cache.clientStatistics();
+      long hits = stats.getNearCacheHits();
+      long misses = stats.getNearCacheMisses();
+      long total = hits + misses;
+      System.out.printf("%nNear cache hits %d, misses %d, hit ratio %.2f%%, size %d%n",
+            hits, misses, total == 0 ? 0.0 : 100.0 * hits / total, stats.getNearCacheSize());
+      stats.resetStatistics();
+   }
+
+   @TearDown(Level.Trial)
+   public void disconnect() {
+      TutorialsConnectorHelper.stop(cacheManager);
+   }
+
+   @Benchmark
+   @BenchmarkMode(Mode.Throughput)
+   @OutputTimeUnit(TimeUnit.SECONDS)
+   public String get() {
+      return read(ThreadLocalRandom.current());
+   }
+
+   @Benchmark
+   @BenchmarkMode(Mode.SampleTime)
+   @OutputTimeUnit(TimeUnit.MICROSECONDS)
+   public String getLatency() {
+      return read(ThreadLocalRandom.current());
+   }
+
+   private String read(Random random) {
+      return cache.get(keys.nextKey(random));
+   }
+}
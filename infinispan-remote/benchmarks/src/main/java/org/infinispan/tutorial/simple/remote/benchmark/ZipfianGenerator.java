@@ -0,0 +1,62 @@
+package org.infinispan.tutorial.simple.remote.benchmark;
+
+import java.util.Random;
+
+/**
+ * Zipfian key generator based on the algorithm from Gray et al., "Quickly Generating Billion-Record Synthetic
+ * Databases", the same one used by YCSB.
+ * <p>
+ * Key {@code 0} is the most popular one, key {@code 1} the second most popular one, and so on. The zeta constant is
+ * computed once in the constructor, so the generator is cheap to sample and safe to share between threads.
+ */
+public class ZipfianGenerator implements KeyDistribution.KeyGenerator {
+
+   public static final double DEFAULT_SKEW = 0.99;
+
+   private final int items;
+   private final double theta;
+   private final double zetan;
+   private final double alpha;
+   private final double eta;
+   private final double halfPowTheta;
+
+   public ZipfianGenerator(int items, double skew) {
+      if (items < 2) {
+         throw new IllegalArgumentException("A Zipfian distribution needs at least two items");
+      }
+      if (skew <= 0 || skew >= 1) {
+         throw new IllegalArgumentException("The skew must be in the range (0, 1)");
+      }
+      this.items = items;
+      this.theta = skew;
+      this.zetan = zeta(items, skew);
+      this.alpha = 1.0 / (1.0 - skew);
+      this.eta = (1 - Math.pow(2.0 / items, 1 - skew)) / (1 - zeta(2, skew) / zetan);
+      this.halfPowTheta = 1 + Math.pow(0.5, skew);
+   }
+
+   @Override
+   public int nextKey(Random random) {
+      double u = random.nextDouble();
+      double uz = u * zetan;
+      if (uz < 1.0) {
+         return 0;
+      }
+      if (uz < halfPowTheta) {
+         return 1;
+      }
+      return (int) Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+   }
+
+   public double skew() {
+      return theta;
+   }
+
+   private static double zeta(long n, double theta) {
+      double sum = 0;
+      for (long i = 1; i <= n; i++) {
+         sum += 1 / Math.pow(i, theta);
+      }
+      return sum;
+   }
+}
@@ -2,8 +2,14 @@ package org.infinispan.tutorial.simple.remote;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.tutorial.simple.connect.BatchingRemoteCache;
+import org.infinispan.tutorial.simple.connect.BulkLoader;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
 import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
 
 public class InfinispanRemoteCache {
@@ -13,6 +19,8 @@ public class InfinispanRemoteCache {
     public static void main(String[] args) {
         connectToInfinispan();
         manipulateCache();
+        manipulateCacheInBatches(1000);
+        loadInBulk(100_000);
         disconnect();
     }
 
@@ -23,6 +31,26 @@ public class InfinispanRemoteCache {
         System.out.printf("key = %s\n", cache.get("key"));
     }
 
+    static void manipulateCacheInBatches(int size) {
+        // Many small writers, each one storing a single value.
+        // The batching cache groups the puts in a few putAll calls
+        try (BatchingRemoteCache<String, String> batchingCache = TutorialsConnectorHelper.batching(cache)) {
+            CompletableFuture.allOf(IntStream.range(0, size)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> batchingCache.put("key-" + i, "value-" + i)))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+            // Reads are grouped in getAll calls the same way
+            System.out.printf("key-0 = %s\n", batchingCache.get("key-0"));
+        }
+    }
+
+    static BulkLoader.Progress loadInBulk(int size) {
+        // Entries are generated lazily and sent in bounded parallel batches,
+        // the whole data set is never held in memory
+        BulkLoader<String, String> loader = new BulkLoader<>(cache);
+        return loader.load(IntStream.range(0, size).mapToObj(i -> Map.entry("bulk-" + i, "value-" + i)));
+    }
+
     static void connectToInfinispan() {
         // Connect to the server
         cacheManager = TutorialsConnectorHelper.connect();
@@ -1,5 +1,6 @@
 package org.infinispan.tutorial.simple.remote;
 
+import org.infinispan.tutorial.simple.connect.BulkLoader;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -28,4 +29,20 @@ public class InfinispanRemoteCacheTest {
         assertEquals("value", InfinispanRemoteCache.cache.get("key"));
     }
 
+    @Test
+    public void testRemoteCacheInBatches() {
+        InfinispanRemoteCache.manipulateCacheInBatches(100);
+
+        assertEquals("value-0", InfinispanRemoteCache.cache.get("key-0"));
+        assertEquals("value-99", InfinispanRemoteCache.cache.get("key-99"));
+    }
+
+    @Test
+    public void testRemoteCacheBulkLoad() {
+        BulkLoader.Progress progress = InfinispanRemoteCache.loadInBulk(10_000);
+
+        assertEquals(10_000, progress.entries());
+        assertEquals("value-9999", InfinispanRemoteCache.cache.get("bulk-9999"));
+    }
+
 }
@@ -0,0 +1,245 @@
+package org.infinispan.tutorial.simple.connect;
+
+import org.infinispan.client.hotrod.RemoteCache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching decorator around a {@link RemoteCache}.
+ * <p>
+ * Single {@link #put(Object, Object)} and {@link #get(Object)} calls are buffered until either the flush window
+ * elapses or the batch reaches its maximum size. Buffered writes are then sent with a single
+ * {@link RemoteCache#putAllAsync(Map)} and buffered reads with a single {@link RemoteCache#getAllAsync(java.util.Set)},
+ * so many small callers share one Hot Rod round trip. Every caller gets its own future, completed when the batch
+ * holding its operation completes.
+ * <p>
+ * Writes to the same key within a window are coalesced, last write wins. Batches of writes are sent one after the
+ * other, so an older value never overwrites a newer one in the server. Reads of a key with a buffered or in-flight
+ * write wait for that write and return its value, or fail if the write fails, so a caller always reads its own writes.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BatchingRemoteCache<K, V> implements AutoCloseable {
+
+   public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+   public static final Duration DEFAULT_FLUSH_WINDOW = Duration.ofMillis(2);
+
+   private final RemoteCache<K, V> delegate;
+   private final int maxBatchSize;
+   private final long flushWindowNanos;
+   private final ScheduledExecutorService scheduler;
+   // Key -> the value of its in-flight write, completed when the write has been applied
+   private final Map<K, CompletableFuture<V>> inFlightPuts = new ConcurrentHashMap<>();
+
+   // Guarded by this
+   private Map<K, V> pendingPuts = new LinkedHashMap<>();
+   private CompletableFuture<Void> pendingPutsDone = new CompletableFuture<>();
+   private Map<K, CompletableFuture<V>> pendingGets = new HashMap<>();
+   private CompletableFuture<Void> lastPutsDone = CompletableFuture.completedFuture(null);
+   private ScheduledFuture<?> scheduledFlush;
+   private boolean closed;
+
+   public BatchingRemoteCache(RemoteCache<K, V> delegate) {
+      this(delegate, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_WINDOW);
+   }
+
+   public BatchingRemoteCache(RemoteCache<K, V> delegate, int maxBatchSize, Duration flushWindow) {
+      if (maxBatchSize < 1) {
+         throw new IllegalArgumentException("maxBatchSize must be positive");
+      }
+      this.delegate = delegate;
+      this.maxBatchSize = maxBatchSize;
+      this.flushWindowNanos = flushWindow.toNanos();
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread thread = new Thread(r, "batching-" + delegate.getName());
+         thread.setDaemon(true);
+         return thread;
+      });
+   }
+
+   /**
+    * @return the decorated cache, for the operations that are not batched
+    */
+   public RemoteCache<K, V> delegate() {
+      return delegate;
+   }
+
+   public String getName() {
+      return delegate.getName();
+   }
+
+   /**
+    * Stores the value, blocking until the batch holding the write has been applied.
+    */
+   public void put(K key, V value) {
+      putAsync(key, value).join();
+   }
+
+   /**
+    * Buffers the write. The returned future completes when the batch holding the write has been applied.
+    */
+   public CompletableFuture<Void> putAsync(K key, V value) {
+      CompletableFuture<Void> done;
+      boolean full;
+      synchronized (this) {
+         checkOpen();
+         pendingPuts.put(key, value);
+         done = pendingPutsDone;
+         full = pendingSize() >= maxBatchSize;
+         if (!full) {
+            scheduleFlush();
+         }
+      }
+      if (full) {
+         flush();
+      }
+      return done.copy();
+   }
+
+   /**
+    * Reads the value, blocking until the batch holding the read has been answered.
+    */
+   public V get(K key) {
+      return getAsync(key).join();
+   }
+
+   /**
+    * Buffers the read. Concurrent reads of the same key within a window share a single lookup.
+    */
+   public CompletableFuture<V> getAsync(K key) {
+      CompletableFuture<V> result;
+      boolean full;
+      synchronized (this) {
+         checkOpen();
+         V written = pendingPuts.get(key);
+         if (written != null) {
+            return pendingPutsDone.thenApply(nil -> written);
+         }
+         CompletableFuture<V> inFlight = inFlightPuts.get(key);
+         if (inFlight != null) {
+            return inFlight.copy();
+         }
+         result = pendingGets.computeIfAbsent(key, k -> new CompletableFuture<>());
+         full = pendingSize() >= maxBatchSize;
+         if (!full) {
+            scheduleFlush();
+         }
+      }
+      if (full) {
+         flush();
+      }
+      return result.copy();
+   }
+
+   /**
+    * Sends every buffered operation now.
+    *
+    * @return a future completed when all the operations sent by this flush have completed
+    */
+   public CompletableFuture<Void> flush() {
+      Map<K, V> puts;
+      CompletableFuture<Void> putsDone;
+      Map<K, CompletableFuture<V>> gets;
+      CompletableFuture<Void> previousPutsDone;
+      synchronized (this) {
+         if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+         }
+         puts = pendingPuts;
+         putsDone = pendingPutsDone;
+         gets = pendingGets;
+         previousPutsDone = lastPutsDone;
+         if (!puts.isEmpty()) {
+            lastPutsDone = putsDone;
+            // Visible to readers before the lock is released
+            puts.forEach((key, value) -> inFlightPuts.put(key, putsDone.thenApply(nil -> value)));
+         }
+         pendingPuts = new LinkedHashMap<>();
+         pendingPutsDone = new CompletableFuture<>();
+         pendingGets = new HashMap<>();
+      }
+      return CompletableFuture.allOf(sendPuts(puts, putsDone, previousPutsDone), sendGets(gets));
+   }
+
+   private CompletableFuture<?> sendPuts(Map<K, V> puts, CompletableFuture<Void> done,
+                                         CompletableFuture<Void> previousPutsDone) {
+      if (puts.isEmpty()) {
+         done.complete(null);
+         return done;
+      }
+      // Wait for the previous batch, whatever its outcome, so batches writing the same key are applied in order
+      previousPutsDone.handle((ignore, throwable) -> null)
+            .thenCompose(ignore -> delegate.putAllAsync(puts))
+            .whenComplete((ignore, throwable) -> {
+               if (throwable != null) {
+                  done.completeExceptionally(throwable);
+               } else {
+                  done.complete(null);
+               }
+               // The writes of this batch are done now, the writes of a later batch are not
+               puts.keySet().forEach(key -> inFlightPuts.computeIfPresent(key, (k, inFlight) -> inFlight.isDone() ? null : inFlight));
+            });
+      return done;
+   }
+
+   private CompletableFuture<?> sendGets(Map<K, CompletableFuture<V>> gets) {
+      if (gets.isEmpty()) {
+         return CompletableFuture.completedFuture(null);
+      }
+      return delegate.getAllAsync(gets.keySet()).whenComplete((values, throwable) -> {
+         gets.forEach((key, future) -> {
+            if (throwable != null) {
+               future.completeExceptionally(throwable);
+            } else {
+               future.complete(values.get(key));
+            }
+         });
+      });
+   }
+
+   private int pendingSize() {
+      return pendingPuts.size() + pendingGets.size();
+   }
+
+   private void scheduleFlush() {
+      if (scheduledFlush == null) {
+         scheduledFlush = scheduler.schedule(this::flush, flushWindowNanos, TimeUnit.NANOSECONDS);
+      }
+   }
+
+   private void checkOpen() {
+      if (closed) {
+         throw new IllegalStateException("Batching cache " + delegate.getName() + " is closed");
+      }
+   }
+
+   /**
+    * Flushes the buffered operations, waits for them to complete and stops the flush scheduler.
+    * The decorated cache is left untouched.
+    */
+   @Override
+   public void close() {
+      synchronized (this) {
+         if (closed) {
+            return;
+         }
+         closed = true;
+      }
+      try {
+         flush().join();
+      } finally {
+         scheduler.shutdown();
+      }
+   }
+}
@@ -0,0 +1,222 @@
+package org.infinispan.tutorial.simple.connect;
+
+import org.infinispan.client.hotrod.CacheTopologyInfo;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.commons.hash.MurmurHash3;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams a large number of entries into a {@link RemoteCache}.
+ * <p>
+ * Entries are read lazily from an {@link Iterator} or a {@link Stream} and grouped in batches by segment. All the
+ * keys of a segment have the same primary owner, so each {@link RemoteCache#putAllAsync(Map)} goes to a single
+ * server instead of being split in many small requests. At most {@code maxInFlight} batches are sent at the same
+ * time, and at most {@value #BUFFERED_BATCHES_PER_IN_FLIGHT} times as many batches worth of entries are buffered:
+ * when the buffer is full, the largest partial batch is sent. This keeps the client memory bounded whatever the
+ * number of entries and segments, and smaller loads are sent while they are read instead of all at the end.
+ * Progress and throughput are reported every {@code reportInterval} entries.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BulkLoader<K, V> {
+
+   public static final int DEFAULT_BATCH_SIZE = 1000;
+   public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+   public static final long DEFAULT_REPORT_INTERVAL = 100_000;
+   static final int BUFFERED_BATCHES_PER_IN_FLIGHT = 4;
+
+   /**
+    * Loaded entries and batches at a point of the load.
+    */
+   public record Progress(long entries, long batches, Duration elapsed) {
+      public double entriesPerSecond() {
+         long millis = elapsed.toMillis();
+         return millis == 0 ? entries : entries * 1000.0 / millis;
+      }
+
+      @Override
+      public String toString() {
+         return String.format("%d entries in %d batches, %d ms, %.0f entries/s",
+               entries, batches, elapsed.toMillis(), entriesPerSecond());
+      }
+   }
+
+   private final RemoteCache<K, V> cache;
+   private final int batchSize;
+   private final int maxInFlight;
+   private final long reportInterval;
+   private final Consumer<Progress> progressListener;
+
+   public BulkLoader(RemoteCache<K, V> cache) {
+      this(cache, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_REPORT_INTERVAL,
+            progress -> System.out.println("Loading " + cache.getName() + ": " + progress));
+   }
+
+   public BulkLoader(RemoteCache<K, V> cache, int batchSize, int maxInFlight, long reportInterval,
+                     Consumer<Progress> progressListener) {
+      if (batchSize < 1 || maxInFlight < 1 || reportInterval < 1) {
+         throw new IllegalArgumentException("batchSize, maxInFlight and reportInterval must be positive");
+      }
+      this.cache = cache;
+      this.batchSize = batchSize;
+      this.maxInFlight = maxInFlight;
+      this.reportInterval = reportInterval;
+      this.progressListener = progressListener;
+   }
+
+   public Progress load(Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
+      try (entries) {
+         return load(entries.iterator());
+      }
+   }
+
+   /**
+    * Stores every entry, blocking until all of them are written.
+    *
+    * @return the final progress
+    * @throws CompletionException wrapping the first failure. Entries after a failure are not sent.
+    */
+   public Progress load(Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+      return new Load().run(entries);
+   }
+
+   private class Load {
+      private final long start = System.nanoTime();
+      private final Semaphore inFlight = new Semaphore(maxInFlight);
+      private final AtomicReference<Throwable> failure = new AtomicReference<>();
+      private final AtomicLong loaded = new AtomicLong();
+      private final AtomicLong batches = new AtomicLong();
+      private final AtomicLong nextReport = new AtomicLong(reportInterval);
+      private final SegmentRouter router = new SegmentRouter(cache.getCacheTopologyInfo());
+
+      Progress run(Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+         List<Map<K, V>> buckets = new ArrayList<>(Collections.nCopies(router.buckets(), null));
+         long maxBuffered = (long) batchSize * maxInFlight * BUFFERED_BATCHES_PER_IN_FLIGHT;
+         long buffered = 0;
+         while (entries.hasNext() && failure.get() == null) {
+            Map.Entry<? extends K, ? extends V> entry = entries.next();
+            int bucket = router.bucket(entry.getKey());
+            Map<K, V> batch = buckets.get(bucket);
+            if (batch == null) {
+               batch = new HashMap<>();
+               buckets.set(bucket, batch);
+            }
+            if (batch.put(entry.getKey(), entry.getValue()) == null) {
+               buffered++;
+            }
+            if (batch.size() >= batchSize) {
+               buffered -= sendBucket(buckets, bucket);
+            } else if (buffered >= maxBuffered) {
+               buffered -= sendBucket(buckets, largest(buckets));
+            }
+         }
+         for (int bucket = 0; bucket < buckets.size() && failure.get() == null; bucket++) {
+            if (buckets.get(bucket) != null) {
+               sendBucket(buckets, bucket);
+            }
+         }
+
+         // Wait for the batches still in flight
+         inFlight.acquireUninterruptibly(maxInFlight);
+         inFlight.release(maxInFlight);
+
+         Throwable throwable = failure.get();
+         if (throwable != null) {
+            throw new CompletionException("Bulk load of cache " + cache.getName() + " failed", throwable);
+         }
+         Progress progress = progress();
+         progressListener.accept(progress);
+         return progress;
+      }
+
+      private int sendBucket(List<Map<K, V>> buckets, int bucket) {
+         Map<K, V> batch = buckets.set(bucket, null);
+         send(batch);
+         return batch.size();
+      }
+
+      private int largest(List<Map<K, V>> buckets) {
+         int largest = 0;
+         for (int bucket = 1; bucket < buckets.size(); bucket++) {
+            Map<K, V> batch = buckets.get(bucket);
+            if (batch != null && (buckets.get(largest) == null || batch.size() > buckets.get(largest).size())) {
+               largest = bucket;
+            }
+         }
+         return largest;
+      }
+
+      private void send(Map<K, V> batch) {
+         inFlight.acquireUninterruptibly();
+         cache.putAllAsync(batch).whenComplete((ignore, throwable) -> {
+            try {
+               if (throwable != null) {
+                  failure.compareAndSet(null, throwable);
+               } else {
+                  batches.incrementAndGet();
+                  report(loaded.addAndGet(batch.size()));
+               }
+            } finally {
+               inFlight.release();
+            }
+         });
+      }
+
+      private void report(long total) {
+         long threshold = nextReport.get();
+         if (total >= threshold && nextReport.compareAndSet(threshold, (total / reportInterval + 1) * reportInterval)) {
+            progressListener.accept(progress());
+         }
+      }
+
+      private Progress progress() {
+         return new Progress(loaded.get(), batches.get(), Duration.ofNanos(System.nanoTime() - start));
+      }
+   }
+
+   /**
+    * Maps keys to a bucket per segment, computing the segment of the key like the server does.
+    * Falls back to a single bucket when the topology is not known.
+    */
+   private class SegmentRouter {
+      private final int segmentSize;
+      private final int buckets;
+
+      SegmentRouter(CacheTopologyInfo topology) {
+         Integer numSegments = topology == null ? null : topology.getNumSegments();
+         if (numSegments == null || numSegments < 1) {
+            segmentSize = 0;
+            buckets = 1;
+            return;
+         }
+         segmentSize = (int) Math.ceil((double) Integer.MAX_VALUE / numSegments);
+         buckets = numSegments;
+      }
+
+      int buckets() {
+         return buckets;
+      }
+
+      int bucket(Object key) {
+         if (buckets == 1) {
+            return 0;
+         }
+         byte[] keyBytes = cache.getDataFormat().keyToBytes(key);
+         return (MurmurHash3.getInstance().hash(keyBytes) & Integer.MAX_VALUE) / segmentSize;
+      }
+   }
+}
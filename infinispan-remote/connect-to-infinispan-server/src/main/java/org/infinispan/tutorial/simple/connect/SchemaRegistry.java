@@ -0,0 +1,91 @@
+package org.infinispan.tutorial.simple.connect;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.protostream.GeneratedSchema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.infinispan.query.remote.client.ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME;
+
+/**
+ * Registers Protobuf schemas in the server, uploading only the schemas that are missing or changed.
+ * <p>
+ * Every upload to the Protobuf metadata cache makes the server validate the schema and, for indexed caches, reindex.
+ * The registry compares a SHA-256 hash of each schema with the hash of the schema stored in the server, read with
+ * one {@code getAll}, and uploads the changed schemas with one {@code putAll}. Registering the same schema twice costs
+ * one read and no upload. The server is checked on every call, so a schema removed from the server, or lost in a
+ * restart, is uploaded again.
+ */
+public final class SchemaRegistry {
+
+   /**
+    * @param uploaded  the names of the schema files sent to the server
+    * @param unchanged the names of the schema files that were already up to date
+    */
+   public record Result(Set<String> uploaded, Set<String> unchanged) {
+   }
+
+   private SchemaRegistry() {
+   }
+
+   public static Result register(RemoteCacheManager cacheManager, GeneratedSchema... schemas) {
+      return register(cacheManager, Arrays.asList(schemas));
+   }
+
+   public static Result register(RemoteCacheManager cacheManager, Collection<? extends GeneratedSchema> schemas) {
+      Map<String, String> contents = new LinkedHashMap<>();
+      Map<String, String> hashes = new HashMap<>();
+      Set<String> unchanged = new HashSet<>();
+      for (GeneratedSchema schema : schemas) {
+         contents.put(schema.getProtoFileName(), schema.getProtoFile());
+         hashes.put(schema.getProtoFileName(), hash(schema.getProtoFile()));
+      }
+      if (contents.isEmpty()) {
+         return new Result(Set.of(), unchanged);
+      }
+
+      RemoteCache<String, String> metadataCache = cacheManager.getCache(PROTOBUF_METADATA_CACHE_NAME);
+      Map<String, String> stored = metadataCache.getAll(contents.keySet());
+      Map<String, String> changed = new LinkedHashMap<>();
+      contents.forEach((fileName, content) -> {
+         String storedContent = stored.get(fileName);
+         if (storedContent != null && hash(storedContent).equals(hashes.get(fileName))) {
+            unchanged.add(fileName);
+         } else {
+            changed.put(fileName, content);
+         }
+      });
+      if (!changed.isEmpty()) {
+         metadataCache.putAll(changed);
+      }
+      return new Result(changed.keySet(), unchanged);
+   }
+
+   public static void unregister(RemoteCacheManager cacheManager, GeneratedSchema... schemas) {
+      RemoteCache<String, String> metadataCache = cacheManager.getCache(PROTOBUF_METADATA_CACHE_NAME);
+      for (GeneratedSchema schema : schemas) {
+         metadataCache.remove(schema.getProtoFileName());
+      }
+   }
+
+   static String hash(String content) {
+      try {
+         byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+         return HexFormat.of().formatHex(digest);
+      } catch (NoSuchAlgorithmException e) {
+         // Every Java platform supports SHA-256
+         throw new IllegalStateException(e);
+      }
+   }
+}
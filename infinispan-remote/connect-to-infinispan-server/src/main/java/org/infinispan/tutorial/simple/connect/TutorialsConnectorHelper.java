@@ -6,6 +6,8 @@ import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.client.hotrod.impl.ConfigurationProperties;
 import org.infinispan.server.test.core.InfinispanContainer;
 
+import java.time.Duration;
+
 /**
  * Utility class for the simple tutorials in client server mode.
  *
@@ -98,6 +100,28 @@ public class TutorialsConnectorHelper {
       return cacheManager;
    }
 
+   /**
+    * Wraps the cache in a {@link BatchingRemoteCache} with the default batch size and flush window.
+    *
+    * Single puts and gets are coalesced in putAll and getAll calls, saving a round trip per entry.
+    *
+    * @return a batching decorator of the cache
+    */
+   public static <K, V> BatchingRemoteCache<K, V> batching(RemoteCache<K, V> cache) {
+      return new BatchingRemoteCache<>(cache);
+   }
+
+   /**
+    * Wraps the cache in a {@link BatchingRemoteCache}.
+    *
+    * @param maxBatchSize the number of buffered operations that triggers a flush
+    * @param flushWindow  the longest time an operation stays buffered
+    * @return a batching decorator of the cache
+    */
+   public static <K, V> BatchingRemoteCache<K, V> batching(RemoteCache<K, V> cache, int maxBatchSize, Duration flushWindow) {
+      return new BatchingRemoteCache<>(cache, maxBatchSize, flushWindow);
+   }
+
    public static InfinispanContainer startInfinispanContainer() {
       return startInfinispanContainer(1000);
    }
@@ -10,9 +10,12 @@ import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.query.remote.client.ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME;
 
@@ -56,16 +59,21 @@ public class InfinispanRemoteContinuousQuery {
          "followme",
          "infinispan");
 
+   // Cache receiving a high rate of posts, counted by the live aggregates
+   public static final String POSTS_FEED_CACHE_NAME = "postsFeed";
+
    static RemoteCacheManager client;
    static InstaSchemaImpl schema;
    static ContinuousQuery<String, InstaPost> continuousQuery;
    static ContinuousQueryListener<String, InstaPost> listener;
    static List<InstaPost> queryPosts = new ArrayList<>();
    static Random random = new Random();
+   static LiveAggregates aggregates;
 
    public static void main(String[] args) throws Exception {
       connectToInfinispan();
       createPostsAndQuery(1000, true);
+      aggregatePosts(100_000);
       cleanup();
       disconnect();
    }
@@ -76,6 +84,7 @@ public class InfinispanRemoteContinuousQuery {
 
       // Remove the cache
       client.administration().removeCache(TutorialsConnectorHelper.TUTORIAL_CACHE_NAME);
+      client.administration().removeCache(POSTS_FEED_CACHE_NAME);
    }
 
    public static void createPostsAndQuery(int size, boolean random) throws Exception {
@@ -117,6 +126,48 @@ public class InfinispanRemoteContinuousQuery {
       System.out.println("Total posts by @belen_esteban " + queryPosts.size());
    }
 
+   public static double aggregatePosts(int size) throws Exception {
+      RemoteCache<String, InstaPost> cache = client.getCache(POSTS_FEED_CACHE_NAME);
+      cache.clear();
+
+      // Keep the counters per hashtag and per user up to date from the events of a query on all posts
+      aggregates = new LiveAggregates();
+      ContinuousQuery<String, InstaPost> continuousQuery = cache.continuousQuery();
+      continuousQuery.addContinuousQueryListener(cache.query("FROM tutorial.InstaPost"), aggregates);
+
+      // Add the posts in batches
+      long start = System.nanoTime();
+      Map<String, InstaPost> batch = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+         InstaPost post = randomPost();
+         batch.put(post.id(), post);
+         if (batch.size() == 1000 || i == size - 1) {
+            cache.putAll(batch);
+            batch.clear();
+         }
+      }
+
+      // Wait until every post has been counted
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+      int expected = cache.size();
+      while (aggregates.total() < expected && System.nanoTime() < deadline) {
+         Thread.sleep(10);
+      }
+      double postsPerSecond = aggregates.total() * 1e9 / (System.nanoTime() - start);
+      continuousQuery.removeContinuousQueryListener(aggregates);
+
+      // Reading the aggregates does not run any query
+      System.out.printf("Counted %d posts, %.0f posts/s%n", aggregates.total(), postsPerSecond);
+      System.out.println("Posts by hashtag " + aggregates.hashtags());
+      System.out.println("Total posts by @belen_esteban " + aggregates.countByUser("belen_esteban"));
+      return postsPerSecond;
+   }
+
+   private static InstaPost randomPost() {
+      return new InstaPost(UUID.randomUUID().toString(), USERS.get(random.nextInt(USERS.size())),
+            HASHTAGS.get(random.nextInt(HASHTAGS.size())));
+   }
+
    private static void addPost(RemoteCache<String, InstaPost> cache, boolean isRandom) {
       String id = UUID.randomUUID().toString();
       InstaPost post;
@@ -134,6 +185,8 @@ public class InfinispanRemoteContinuousQuery {
       ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
       schema = new InstaSchemaImpl();
       builder.addContextInitializer(schema);
+      builder.remoteCache(POSTS_FEED_CACHE_NAME)
+            .configuration(TutorialsConnectorHelper.TUTORIAL_CACHE_CONFIG.replace("CACHE_NAME", POSTS_FEED_CACHE_NAME));
       client = TutorialsConnectorHelper.connect(builder);
       // Create and add the Protobuf schema for InstaPost class. Note InstaPost is an annotated POJO
       register(schema, client);
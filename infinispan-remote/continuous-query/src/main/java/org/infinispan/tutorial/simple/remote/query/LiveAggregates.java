@@ -0,0 +1,93 @@
+package org.infinispan.tutorial.simple.remote.query;
+
+import org.infinispan.commons.api.query.ContinuousQueryListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Continuous query listener that keeps the number of matching posts per hashtag and per user up to date.
+ * <p>
+ * Each event adjusts the counters of the post that joined, changed or left the query results, so reading an
+ * aggregate costs one map lookup instead of running a query. The user and hashtag of the matching posts are kept by
+ * key because a post leaving the results only comes with its key, the rest of the post is not kept.
+ */
+public class LiveAggregates implements ContinuousQueryListener<String, InstaPost> {
+
+   // The fields of a matching post that its counters depend on
+   private record Counted(String user, String hashtag) {
+   }
+
+   private final Map<String, Counted> posts = new ConcurrentHashMap<>();
+   private final Map<String, LongAdder> byHashtag = new ConcurrentHashMap<>();
+   private final Map<String, LongAdder> byUser = new ConcurrentHashMap<>();
+
+   @Override
+   public void resultJoining(String key, InstaPost post) {
+      replace(key, post);
+   }
+
+   @Override
+   public void resultUpdated(String key, InstaPost post) {
+      replace(key, post);
+   }
+
+   @Override
+   public void resultLeaving(String key) {
+      Counted previous = posts.remove(key);
+      if (previous != null) {
+         add(previous, -1);
+      }
+   }
+
+   private void replace(String key, InstaPost post) {
+      Counted counted = new Counted(post.user(), post.hashtag());
+      Counted previous = posts.put(key, counted);
+      if (previous != null) {
+         add(previous, -1);
+      }
+      add(counted, 1);
+   }
+
+   private void add(Counted post, int delta) {
+      byHashtag.computeIfAbsent(post.hashtag(), h -> new LongAdder()).add(delta);
+      byUser.computeIfAbsent(post.user(), u -> new LongAdder()).add(delta);
+   }
+
+   /**
+    * @return the number of posts matching the query
+    */
+   public long total() {
+      return posts.size();
+   }
+
+   public long countByHashtag(String hashtag) {
+      LongAdder count = byHashtag.get(hashtag);
+      return count == null ? 0 : count.sum();
+   }
+
+   public long countByUser(String user) {
+      LongAdder count = byUser.get(user);
+      return count == null ? 0 : count.sum();
+   }
+
+   public Map<String, Long> hashtags() {
+      return snapshot(byHashtag);
+   }
+
+   public Map<String, Long> users() {
+      return snapshot(byUser);
+   }
+
+   private static Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+      Map<String, Long> snapshot = new ConcurrentHashMap<>();
+      counts.forEach((name, count) -> {
+         long sum = count.sum();
+         if (sum > 0) {
+            snapshot.put(name, sum);
+         }
+      });
+      return snapshot;
+   }
+}
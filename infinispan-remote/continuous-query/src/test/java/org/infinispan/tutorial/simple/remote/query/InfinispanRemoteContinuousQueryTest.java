@@ -4,6 +4,9 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -30,4 +33,51 @@ public class InfinispanRemoteContinuousQueryTest {
         assertEquals(1, InfinispanRemoteContinuousQuery.client.getCache(TUTORIAL_CACHE_NAME).size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLiveAggregates() throws Exception {
+        InfinispanRemoteContinuousQuery.aggregatePosts(10_000);
+
+        LiveAggregates aggregates = InfinispanRemoteContinuousQuery.aggregates;
+        long cached = InfinispanRemoteContinuousQuery.client.getCache(InfinispanRemoteContinuousQuery.POSTS_FEED_CACHE_NAME).size();
+        assertEquals(10_000, cached);
+        assertEquals(cached, aggregates.total());
+        assertEquals(cached, aggregates.hashtags().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(cached, aggregates.users().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void testLiveAggregatesThroughput() throws Exception {
+        // Feed the listener directly, as the client event threads would, from 4 threads
+        LiveAggregates aggregates = new LiveAggregates();
+        int postsPerThread = 100_000;
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < postsPerThread; i++) {
+                    String key = thread + "-" + i;
+                    aggregates.resultJoining(key, new InstaPost(key, "user" + i % 10, "tag" + i % 20));
+                    if (i % 4 == 0) {
+                        aggregates.resultUpdated(key, new InstaPost(key, "user" + i % 10, "infinispan"));
+                    } else if (i % 4 == 1) {
+                        aggregates.resultLeaving(key);
+                    }
+                }
+            });
+            threads.add(worker);
+            worker.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double eventsPerSecond = 4 * postsPerThread * 1.5 * 1e9 / (System.nanoTime() - start);
+
+        assertEquals(3 * postsPerThread, aggregates.total());
+        assertEquals(postsPerThread, aggregates.countByHashtag("infinispan"));
+        // Posts of user0 never leave
+        assertEquals(4 * postsPerThread / 10, aggregates.countByUser("user0"));
+        // Only reported, the rate depends on the machine
+        System.out.printf("%.0f events/s%n", eventsPerSecond);
+    }
+}
@@ -8,6 +8,12 @@ import org.infinispan.counter.api.CounterType;
 import org.infinispan.counter.api.StrongCounter;
 import org.infinispan.counter.api.WeakCounter;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
+import org.infinispan.tutorial.simple.counter.utils.CounterAccumulator;
+import org.infinispan.tutorial.simple.counter.utils.LeasedRateLimiter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Remote Counter simple tutorial.
@@ -26,10 +32,13 @@ public class InfinispanRemoteCounter {
    static StrongCounter counter1;
    static StrongCounter counter2;
    static WeakCounter counter3;
+   static StrongCounter pageViews;
 
    public static void main(String[] args) throws Exception {
       connectToInfinispan();
       manipulateCounters();
+      countPageViews(1_000_000, 8);
+      limitRequests(1000);
       disconnect();
    }
 
@@ -105,6 +114,48 @@ public class InfinispanRemoteCounter {
       System.out.println("Counter-3 value is " + counter3.getValue());
    }
 
+   public static long countPageViews(int views, int threads) throws Exception {
+      counterManager.defineCounter("page-views", CounterConfiguration.builder(CounterType.UNBOUNDED_STRONG)
+              .initialValue(0)
+              .build());
+      pageViews = counterManager.getStrongCounter("page-views");
+
+      // Page views are counted in memory and sent to the server in batches, instead of one request per view
+      try (CounterAccumulator accumulator = new CounterAccumulator(pageViews)) {
+         ExecutorService executor = Executors.newFixedThreadPool(threads);
+         for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+               for (int i = 0; i < views / threads; i++) {
+                  accumulator.increment();
+               }
+            });
+         }
+         executor.shutdown();
+         executor.awaitTermination(1, TimeUnit.MINUTES);
+         System.out.println("Page views flushed " + accumulator.flushes() + " times, pending " + accumulator.pending());
+      }
+      // Closing the accumulator flushed the remaining views
+      long value = pageViews.getValue().get();
+      System.out.println("Page views value is " + value);
+      return value;
+   }
+
+   public static int limitRequests(int requests) {
+      // 100 permits at most, refilled with 50 permits per second
+      try (LeasedRateLimiter rateLimiter = new LeasedRateLimiter(counterManager, "api-rate-limit", 100, 50)) {
+         int granted = 0;
+         for (int i = 0; i < requests; i++) {
+            // Most requests are served from the permits leased locally, without a counter operation
+            if (rateLimiter.tryAcquire()) {
+               granted++;
+            }
+         }
+         System.out.printf("Rate limiter granted %d of %d requests with %d leases, lease size %d%n", granted, requests,
+               rateLimiter.leases(), rateLimiter.leaseSize());
+         return granted;
+      }
+   }
+
    public static void connectToInfinispan() {
       // Connect to the server
       cacheManager = TutorialsConnectorHelper.connect();
@@ -118,6 +169,11 @@ public class InfinispanRemoteCounter {
       counterManager.remove(counter1.getName());
       counterManager.remove(counter2.getName());
       counterManager.remove(counter3.getName());
+      if (pageViews != null) {
+         counterManager.remove(pageViews.getName());
+      }
+      counterManager.remove("api-rate-limit");
+      counterManager.remove("api-rate-limit-refilled-period");
       // Stop the cache manager and release all resources
       TutorialsConnectorHelper.stop(cacheManager);
    }
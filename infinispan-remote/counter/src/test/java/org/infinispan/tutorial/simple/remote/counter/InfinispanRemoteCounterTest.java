@@ -32,4 +32,17 @@ public class InfinispanRemoteCounterTest {
         assertEquals(2, InfinispanRemoteCounter.counter2.sync().getValue());
         assertEquals(8, InfinispanRemoteCounter.counter3.sync().getValue());
     }
+
+    @Test
+    public void testRemoteCounterAccumulator() throws Exception {
+        assertEquals(80_000, InfinispanRemoteCounter.countPageViews(80_000, 8));
+    }
+
+    @Test
+    public void testLeasedRateLimiter() {
+        int granted = InfinispanRemoteCounter.limitRequests(1000);
+        // The bucket starts full, a few more permits may be refilled while the requests run
+        assertTrue(granted >= 100, "granted " + granted);
+        assertTrue(granted < 1000, "granted " + granted);
+    }
 }
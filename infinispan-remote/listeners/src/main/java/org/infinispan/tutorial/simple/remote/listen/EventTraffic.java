@@ -0,0 +1,44 @@
+package org.infinispan.tutorial.simple.remote.listen;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the events received by a listener and their size in bytes.
+ */
+public class EventTraffic {
+
+   private final LongAdder events = new LongAdder();
+   private final LongAdder bytes = new LongAdder();
+   private final AtomicLong firstNanos = new AtomicLong();
+   private volatile long lastNanos;
+
+   public void record(int eventBytes) {
+      long now = System.nanoTime();
+      firstNanos.compareAndSet(0, now);
+      lastNanos = now;
+      events.increment();
+      bytes.add(eventBytes);
+   }
+
+   public long events() {
+      return events.sum();
+   }
+
+   public long bytes() {
+      return bytes.sum();
+   }
+
+   /**
+    * @return the events per second between the first and the last event
+    */
+   public double eventsPerSecond() {
+      long elapsed = lastNanos - firstNanos.get();
+      return elapsed <= 0 ? events() : events() * 1e9 / elapsed;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("%d events, %d bytes, %.0f events/s", events(), bytes(), eventsPerSecond());
+   }
+}
@@ -5,10 +5,26 @@ import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.annotation.ClientCacheEntryCreated;
 import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
 import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.client.hotrod.event.ClientCacheEntryCreatedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCustomEvent;
 import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.filter.Filters;
+import org.infinispan.client.hotrod.marshall.MarshallerUtil;
+import org.infinispan.protostream.ProtobufUtil;
+import org.infinispan.protostream.SerializationContext;
+import org.infinispan.query.remote.client.FilterResult;
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_CONFIG;
 import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
 
 /**
@@ -23,6 +39,19 @@ public class InfinispanRemoteListen {
    static RemoteCache<String, String> cache;
    static MyListener listener;
 
+   public static final String READINGS_CACHE_NAME = "sensorReadings";
+   // Every reading is sent whole
+   public static final String FULL_READINGS_QUERY = "FROM tutorial.listen.SensorReading";
+   // Every reading is sent, with only the fields the listeners need
+   public static final String ALL_READINGS_QUERY =
+         "SELECT r.sensor, r.temperature FROM tutorial.listen.SensorReading r";
+   // Same projection, but only readings above 30 degrees are sent
+   public static final String HOT_READINGS_QUERY = ALL_READINGS_QUERY + " WHERE r.temperature > 30";
+   static RemoteCache<String, SensorReading> readingsCache;
+   static AllReadingsListener fullReadingsListener;
+   static AllReadingsListener allReadingsListener;
+   static HotReadingsListener hotReadingsListener;
+
    public static void main(String[] args) throws InterruptedException {
       connectToInfinispan();
 
@@ -32,6 +61,8 @@ public class InfinispanRemoteListen {
 
       // Remote events are asynchronous, so wait a bit
       Thread.sleep(1000);
+
+      compareEventTraffic(10_000);
       disconnect(false);
    }
 
@@ -48,12 +79,58 @@ public class InfinispanRemoteListen {
       cache.addClientListener(listener);
    }
 
+   static void compareEventTraffic(int writes) throws InterruptedException {
+      // The first listener receives the whole readings. The other two receive the same projection, one for every
+      // change and the other one only for the hot readings
+      fullReadingsListener = new AllReadingsListener();
+      readingsCache.addClientListener(fullReadingsListener, Filters.makeFactoryParams(FULL_READINGS_QUERY, null), null);
+      allReadingsListener = new AllReadingsListener();
+      readingsCache.addClientListener(allReadingsListener, Filters.makeFactoryParams(ALL_READINGS_QUERY, null), null);
+      hotReadingsListener = new HotReadingsListener(MarshallerUtil.getSerializationContext(cacheManager));
+      readingsCache.addClientListener(hotReadingsListener, Filters.makeFactoryParams(HOT_READINGS_QUERY, null), null);
+
+      String notes = "Calibrated on site, firmware 2.1, no anomalies found during the last maintenance window.";
+      int hotWrites = 0;
+      for (int i = 0; i < writes; i++) {
+         double temperature = ThreadLocalRandom.current().nextDouble(0, 40);
+         readingsCache.put("sensor-" + i % 100, new SensorReading("sensor-" + i % 100, "hall-" + i % 5, temperature, notes));
+         if (temperature > 30) {
+            hotWrites++;
+         }
+      }
+
+      // Remote events are asynchronous, wait until all of them have arrived
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while ((fullReadingsListener.traffic.events() < writes || allReadingsListener.traffic.events() < writes
+            || hotReadingsListener.traffic.events() < hotWrites) && System.nanoTime() < deadline) {
+         Thread.sleep(100);
+      }
+
+      readingsCache.removeClientListener(fullReadingsListener);
+      readingsCache.removeClientListener(allReadingsListener);
+      readingsCache.removeClientListener(hotReadingsListener);
+      System.out.println("Without filter and projection: " + fullReadingsListener.traffic);
+      System.out.println("Without filter: " + allReadingsListener.traffic);
+      System.out.println("With filter: " + hotReadingsListener.traffic);
+   }
+
    public static void connectToInfinispan() {
+      ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
+
+      // Add the Protobuf serialization context of the readings in the client
+      builder.addContextInitializer(new ListenSchemaImpl());
+      builder.remoteCache(READINGS_CACHE_NAME)
+            .configuration(TUTORIAL_CACHE_CONFIG.replace("CACHE_NAME", READINGS_CACHE_NAME));
+
       // Connect to the server
-      cacheManager = TutorialsConnectorHelper.connect();
+      cacheManager = TutorialsConnectorHelper.connect(builder);
+
+      // The server filters the events with a query on the readings, so it needs their schema
+      SchemaRegistry.register(cacheManager, new ListenSchemaImpl());
 
       // Get the test cache
       cache = cacheManager.getCache(TUTORIAL_CACHE_NAME);
+      readingsCache = cacheManager.getCache(READINGS_CACHE_NAME);
    }
 
    public static void disconnect(boolean removeCache) {
@@ -62,6 +139,7 @@ public class InfinispanRemoteListen {
 
       if (removeCache) {
          cacheManager.administration().removeCache(TUTORIAL_CACHE_NAME);
+         cacheManager.administration().removeCache(READINGS_CACHE_NAME);
       }
 
       // Stop the cache manager and release all resources
@@ -88,4 +166,60 @@ public class InfinispanRemoteListen {
 
    }
 
+   /**
+    * Receives every change of the readings, converted by the query it is registered with. Registered with the same
+    * projection as {@link HotReadingsListener}, it is the baseline that isolates the effect of the filter.
+    */
+   @ClientListener(filterFactoryName = Filters.QUERY_DSL_FILTER_FACTORY_NAME,
+         converterFactoryName = Filters.QUERY_DSL_FILTER_FACTORY_NAME,
+         useRawData = true)
+   public static class AllReadingsListener {
+      final EventTraffic traffic = new EventTraffic();
+
+      @ClientCacheEntryCreated
+      public void entryCreated(ClientCacheEntryCustomEvent<byte[]> event) {
+         traffic.record(event.getEventData().length);
+      }
+
+      @ClientCacheEntryModified
+      public void entryModified(ClientCacheEntryCustomEvent<byte[]> event) {
+         traffic.record(event.getEventData().length);
+      }
+   }
+
+   /**
+    * Receives only the readings matching the query, with the projected fields.
+    */
+   @ClientListener(filterFactoryName = Filters.QUERY_DSL_FILTER_FACTORY_NAME,
+         converterFactoryName = Filters.QUERY_DSL_FILTER_FACTORY_NAME,
+         useRawData = true)
+   public static class HotReadingsListener {
+      final EventTraffic traffic = new EventTraffic();
+      final Map<String, Double> hottest = new ConcurrentHashMap<>();
+      private final SerializationContext serializationContext;
+
+      HotReadingsListener(SerializationContext serializationContext) {
+         this.serializationContext = serializationContext;
+      }
+
+      @ClientCacheEntryCreated
+      public void entryCreated(ClientCacheEntryCustomEvent<byte[]> event) {
+         onReading(event.getEventData());
+      }
+
+      @ClientCacheEntryModified
+      public void entryModified(ClientCacheEntryCustomEvent<byte[]> event) {
+         onReading(event.getEventData());
+      }
+
+      private void onReading(byte[] eventData) {
+         traffic.record(eventData.length);
+         try {
+            Object[] projection = ((FilterResult) ProtobufUtil.fromWrappedByteArray(serializationContext, eventData)).getProjection();
+            hottest.merge((String) projection[0], (Double) projection[1], Math::max);
+         } catch (IOException e) {
+            throw new UncheckedIOException(e);
+         }
+      }
+   }
 }
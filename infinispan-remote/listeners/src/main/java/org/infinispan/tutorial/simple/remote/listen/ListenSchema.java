@@ -0,0 +1,8 @@
+package org.infinispan.tutorial.simple.remote.listen;
+
+import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.protostream.annotations.ProtoSchema;
+
+@ProtoSchema(schemaPackageName = "tutorial.listen", includeClasses = SensorReading.class)
+public interface ListenSchema extends GeneratedSchema {
+}
@@ -0,0 +1,10 @@
+package org.infinispan.tutorial.simple.remote.listen;
+
+import org.infinispan.protostream.annotations.Proto;
+
+/**
+ * A reading with a bulky notes field, which the filtered listener never needs to receive.
+ */
+@Proto
+public record SensorReading(String sensor, String location, double temperature, String notes) {
+}
@@ -39,4 +39,23 @@ public class InfinispanRemoteListenTest {
         assertTrue(logTrack.contains("Created"));
         assertTrue(logTrack.contains("About to modify"));
     }
+
+    @Test
+    public void testFilteredListenerTraffic() throws Exception {
+        assertNotNull(InfinispanRemoteListen.readingsCache);
+
+        InfinispanRemoteListen.compareEventTraffic(1000);
+
+        EventTraffic full = InfinispanRemoteListen.fullReadingsListener.traffic;
+        EventTraffic all = InfinispanRemoteListen.allReadingsListener.traffic;
+        EventTraffic hot = InfinispanRemoteListen.hotReadingsListener.traffic;
+        assertEquals(1000, full.events());
+        assertEquals(1000, all.events());
+        // The projection alone makes every event smaller
+        assertTrue(all.bytes() < full.bytes());
+        assertTrue(hot.events() > 0);
+        assertTrue(hot.events() < all.events());
+        assertTrue(hot.bytes() < all.bytes());
+        InfinispanRemoteListen.hotReadingsListener.hottest.values().forEach(t -> assertTrue(t > 30));
+    }
 }
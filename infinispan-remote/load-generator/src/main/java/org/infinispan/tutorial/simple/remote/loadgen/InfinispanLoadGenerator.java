@@ -0,0 +1,169 @@
+package org.infinispan.tutorial.simple.remote.loadgen;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.tutorial.simple.connect.BulkLoader;
+import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a read/write mix against a remote cache with many concurrent callers, on virtual threads and on a pool of
+ * platform threads, and reports the throughput and latency histograms of both.
+ * <p>
+ * Each caller issues an operation as soon as its previous one completes. The time an operation waits before a
+ * thread runs it is reported as the queue wait. It stays close to zero with virtual threads, while callers queue
+ * for a free thread with a platform pool smaller than the number of callers.
+ * <p>
+ * The load is configured with system properties, see {@link LoadProfile#fromSystemProperties()}. Virtual threads
+ * are only available when running on Java 21 or later.
+ */
+public class InfinispanLoadGenerator {
+
+   static RemoteCacheManager cacheManager;
+
+   /**
+    * @param cacheName      the cache to load, any tutorial cache
+    * @param callers        the number of concurrent callers
+    * @param duration       how long each mode runs
+    * @param readRatio      the fraction of operations that are reads, the other ones are writes
+    * @param keySpace       the number of distinct keys
+    * @param valueSize      the size of the written values
+    * @param platformThreads the size of the platform thread pool
+    */
+   public record LoadProfile(String cacheName, int callers, Duration duration, double readRatio, int keySpace,
+                             int valueSize, int platformThreads) {
+
+      /**
+       * Reads the profile from the {@code cache}, {@code callers}, {@code duration} (seconds), {@code readRatio},
+       * {@code keySpace}, {@code valueSize} and {@code platformThreads} system properties.
+       */
+      public static LoadProfile fromSystemProperties() {
+         return new LoadProfile(
+               System.getProperty("cache", TutorialsConnectorHelper.TUTORIAL_CACHE_NAME),
+               Integer.getInteger("callers", 1000),
+               Duration.ofSeconds(Integer.getInteger("duration", 30)),
+               Double.parseDouble(System.getProperty("readRatio", "0.8")),
+               Integer.getInteger("keySpace", 10_000),
+               Integer.getInteger("valueSize", 128),
+               Integer.getInteger("platformThreads", 200));
+      }
+   }
+
+   public record LoadReport(ThreadMode mode, Duration elapsed, LatencyHistogram reads, LatencyHistogram writes,
+                            LatencyHistogram queueWait, long errors) {
+
+      public long operations() {
+         return reads.count() + writes.count();
+      }
+
+      public double throughput() {
+         return operations() * 1_000_000_000.0 / Math.max(1, elapsed.toNanos());
+      }
+
+      @Override
+      public String toString() {
+         return String.format("== %s threads: %d operations in %d ms, %.0f ops/s, %d errors%n", mode, operations(),
+               elapsed.toMillis(), throughput(), errors)
+               + "Reads\n" + reads.format()
+               + "Writes\n" + writes.format()
+               + "Queue wait\n" + queueWait.format();
+      }
+   }
+
+   public static void main(String[] args) throws Exception {
+      LoadProfile profile = LoadProfile.fromSystemProperties();
+      connectToInfinispan();
+      populate(profile);
+      for (LoadReport report : runAll(profile)) {
+         System.out.println(report);
+      }
+      disconnect();
+   }
+
+   static void connectToInfinispan() {
+      cacheManager = TutorialsConnectorHelper.connect();
+   }
+
+   static void populate(LoadProfile profile) {
+      RemoteCache<String, String> cache = cacheManager.getCache(profile.cacheName());
+      String value = "x".repeat(profile.valueSize());
+      new BulkLoader<>(cache).load(IntStream.range(0, profile.keySpace()).mapToObj(i -> Map.entry(key(i), value)));
+   }
+
+   static List<LoadReport> runAll(LoadProfile profile) throws InterruptedException {
+      List<LoadReport> reports = new ArrayList<>();
+      for (ThreadMode mode : ThreadMode.values()) {
+         if (mode.isAvailable()) {
+            reports.add(run(mode, profile));
+         } else {
+            System.out.printf("Skipping %s threads, not available in Java %s%n", mode, Runtime.version().feature());
+         }
+      }
+      return reports;
+   }
+
+   static LoadReport run(ThreadMode mode, LoadProfile profile) throws InterruptedException {
+      RemoteCache<String, String> cache = cacheManager.getCache(profile.cacheName());
+      String value = "x".repeat(profile.valueSize());
+      LatencyHistogram reads = new LatencyHistogram();
+      LatencyHistogram writes = new LatencyHistogram();
+      LatencyHistogram queueWait = new LatencyHistogram();
+      LongAdder errors = new LongAdder();
+      Semaphore callers = new Semaphore(profile.callers());
+
+      ExecutorService executor = mode.executor(profile.platformThreads());
+      long start = System.nanoTime();
+      long deadline = start + profile.duration().toNanos();
+      try {
+         while (System.nanoTime() < deadline) {
+            // A caller issues its next operation when the previous one completes
+            callers.acquire();
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+               long started = System.nanoTime();
+               queueWait.record(started - submitted);
+               try {
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  String key = key(random.nextInt(profile.keySpace()));
+                  if (random.nextDouble() < profile.readRatio()) {
+                     cache.get(key);
+                     reads.record(System.nanoTime() - started);
+                  } else {
+                     cache.put(key, value);
+                     writes.record(System.nanoTime() - started);
+                  }
+               } catch (Exception e) {
+                  errors.increment();
+               } finally {
+                  callers.release();
+               }
+            });
+         }
+         // Wait for the operations in progress
+         callers.acquire(profile.callers());
+      } finally {
+         executor.shutdown();
+         executor.awaitTermination(10, TimeUnit.SECONDS);
+      }
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+      return new LoadReport(mode, elapsed, reads, writes, queueWait, errors.sum());
+   }
+
+   private static String key(int i) {
+      return "load-" + i;
+   }
+
+   static void disconnect() {
+      TutorialsConnectorHelper.stop(cacheManager);
+   }
+}
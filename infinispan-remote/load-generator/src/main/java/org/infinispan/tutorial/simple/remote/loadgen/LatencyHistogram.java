@@ -0,0 +1,85 @@
+package org.infinispan.tutorial.simple.remote.loadgen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power of two buckets in microseconds.
+ * <p>
+ * Bucket {@code i} counts the values in {@code [2^(i-1), 2^i)} microseconds, bucket 0 the values under one
+ * microsecond. Percentiles are reported as the upper bound of the bucket holding them, which is precise enough to
+ * compare runs and cheap enough to record from thousands of threads.
+ */
+public class LatencyHistogram {
+
+   private static final int BUCKETS = 40;
+
+   private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+   private final LongAdder total = new LongAdder();
+   private final LongAdder sumNanos = new LongAdder();
+   private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+   public void record(long nanos) {
+      long micros = Math.max(0, nanos / 1000);
+      int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+      counts.incrementAndGet(bucket);
+      total.increment();
+      sumNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+   }
+
+   public long count() {
+      return total.sum();
+   }
+
+   public double meanMicros() {
+      long count = count();
+      return count == 0 ? 0 : sumNanos.sum() / 1000.0 / count;
+   }
+
+   public long maxMicros() {
+      return maxNanos.get() / 1000;
+   }
+
+   /**
+    * @param percentile a value between 0 and 100
+    * @return the upper bound, in microseconds, of the bucket holding the percentile
+    */
+   public long percentileMicros(double percentile) {
+      long count = count();
+      if (count == 0) {
+         return 0;
+      }
+      long rank = (long) Math.ceil(percentile / 100 * count);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         seen += counts.get(i);
+         if (seen >= rank) {
+            return upperBoundMicros(i);
+         }
+      }
+      return maxMicros();
+   }
+
+   private static long upperBoundMicros(int bucket) {
+      return 1L << bucket;
+   }
+
+   /**
+    * @return the percentiles and the non empty buckets, one per line
+    */
+   public String format() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("  count %d, mean %.1f us, p50 %d us, p90 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+            count(), meanMicros(), percentileMicros(50), percentileMicros(90), percentileMicros(99),
+            percentileMicros(99.9), maxMicros()));
+      for (int i = 0; i < BUCKETS; i++) {
+         long bucketCount = counts.get(i);
+         if (bucketCount > 0) {
+            sb.append(String.format("  < %10d us: %d%n", upperBoundMicros(i), bucketCount));
+         }
+      }
+      return sb.toString();
+   }
+}
@@ -0,0 +1,60 @@
+package org.infinispan.tutorial.simple.remote.loadgen;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads running the operations of the load generator.
+ */
+public enum ThreadMode {
+
+   /**
+    * One virtual thread per operation. The tutorials compile for Java 17, so the executor is looked up at runtime
+    * and is only available when running on Java 21 or later.
+    */
+   VIRTUAL {
+      @Override
+      public ExecutorService executor(int poolSize) {
+         try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+         } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later", e);
+         }
+      }
+
+      @Override
+      public boolean isAvailable() {
+         try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+         } catch (NoSuchMethodException e) {
+            return false;
+         }
+      }
+   },
+
+   /**
+    * A fixed pool of platform threads, operations wait in the pool queue when all the threads are busy.
+    */
+   PLATFORM {
+      @Override
+      public ExecutorService executor(int poolSize) {
+         AtomicInteger counter = new AtomicInteger();
+         return Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "load-generator-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
+
+      @Override
+      public boolean isAvailable() {
+         return true;
+      }
+   };
+
+   public abstract ExecutorService executor(int poolSize);
+
+   public abstract boolean isAvailable();
+}
@@ -0,0 +1,43 @@
+package org.infinispan.tutorial.simple.remote.loadgen;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InfinispanLoadGeneratorTest {
+
+    @BeforeAll
+    public static void start() {
+        InfinispanLoadGenerator.connectToInfinispan();
+    }
+
+    @AfterAll
+    public static void stop() {
+        InfinispanLoadGenerator.disconnect();
+    }
+
+    @Test
+    public void testLoadGenerator() throws Exception {
+        InfinispanLoadGenerator.LoadProfile profile =
+                new InfinispanLoadGenerator.LoadProfile(TUTORIAL_CACHE_NAME, 50, Duration.ofSeconds(2), 0.8, 100, 16, 10);
+        InfinispanLoadGenerator.populate(profile);
+
+        List<InfinispanLoadGenerator.LoadReport> reports = InfinispanLoadGenerator.runAll(profile);
+
+        assertFalse(reports.isEmpty());
+        for (InfinispanLoadGenerator.LoadReport report : reports) {
+            assertTrue(report.operations() > 0);
+            assertEquals(0, report.errors());
+            assertEquals(report.operations(), report.queueWait().count());
+        }
+    }
+
+}
@@ -1,12 +1,15 @@
 package org.infinispan.tutorial.simple.remote.multimap;
 
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.client.hotrod.multimap.MultimapCacheManager;
 import org.infinispan.client.hotrod.multimap.RemoteMultimapCache;
 import org.infinispan.client.hotrod.multimap.RemoteMultimapCacheManagerFactory;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
 
@@ -25,10 +28,12 @@ public class InfinispanRemoteMultimap {
    static RemoteCacheManager cacheManager;
    static MultimapCacheManager multimapCacheManager;
    static RemoteMultimapCache<Integer, String> multimap;
+   static PagedRemoteMultimap pagedMultimap;
 
    public static void main(String[] args) throws Exception {
       connectToInfinispan();
       manipulateMultimap();
+      manipulatePagedMultimap();
       disconnect(false);
    }
 
@@ -46,15 +51,36 @@ public class InfinispanRemoteMultimap {
       }).join();
    }
 
+   static long manipulatePagedMultimap() throws Exception {
+      // Add 25000 values to a key in two calls, each value page is one entry in the cache
+      List<String> visitors = IntStream.range(0, 20_000).mapToObj(i -> "visitor-" + i).toList();
+      int pages = pagedMultimap.putAll("visits", visitors).get(10, TimeUnit.SECONDS);
+      pages += pagedMultimap.putAll("visits", visitors.subList(0, 5_000)).get(10, TimeUnit.SECONDS);
+      System.out.println("Values written in " + pages + " pages");
+
+      // Read the values page by page instead of fetching all of them at once
+      long distinct = pagedMultimap.stream("visits").distinct().count();
+      System.out.println("Distinct visitors " + distinct);
+      return distinct;
+   }
+
    public static void connectToInfinispan() {
+      ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
+
+      // Add the Protobuf serialization context of the value pages in the client
+      builder.addContextInitializer(new MultimapSchemaImpl());
+
       // Connect to the server and create a cache
-      cacheManager = TutorialsConnectorHelper.connect();
+      cacheManager = TutorialsConnectorHelper.connect(builder);
 
       // Retrieve the MultimapCacheManager from the CacheManager.
       multimapCacheManager = RemoteMultimapCacheManagerFactory.from(cacheManager);
 
       // Retrieve the multimap cache.
       multimap = multimapCacheManager.get(TUTORIAL_CACHE_NAME);
+
+      // Keys with many values are stored in pages of the same cache
+      pagedMultimap = new PagedRemoteMultimap(cacheManager.getCache(TUTORIAL_CACHE_NAME));
    }
 
    public static void disconnect(boolean removeCache) {
@@ -0,0 +1,8 @@
+package org.infinispan.tutorial.simple.remote.multimap;
+
+import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.protostream.annotations.ProtoSchema;
+
+@ProtoSchema(schemaPackageName = "tutorial.multimap", includeClasses = {PageKey.class, ValuesPage.class})
+public interface MultimapSchema extends GeneratedSchema {
+}
@@ -0,0 +1,11 @@
+package org.infinispan.tutorial.simple.remote.multimap;
+
+import org.infinispan.protostream.annotations.Proto;
+
+/**
+ * The cache key of a page of values in a {@link PagedRemoteMultimap}. Being a message and not a string, it never
+ * collides with the key of a user.
+ */
+@Proto
+public record PageKey(String key, int page) {
+}
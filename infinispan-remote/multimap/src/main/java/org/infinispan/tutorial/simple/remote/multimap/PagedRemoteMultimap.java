@@ -0,0 +1,142 @@
+package org.infinispan.tutorial.simple.remote.multimap;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.RemoteCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Multimap that stores the values of a key in pages of a regular cache, for keys with too many values to be read or
+ * written as one collection.
+ * <p>
+ * The entry of the key holds the number of pages, and each page is stored under a {@link PageKey}. Adding values
+ * reserves new page numbers with a versioned replace of the page count, then writes all the pages with one
+ * {@code putAll}, so concurrent writers never touch the same page. Values are read one page at a time, the next
+ * page being fetched while the current one is consumed.
+ */
+public class PagedRemoteMultimap {
+
+   public static final int DEFAULT_PAGE_SIZE = 1000;
+
+   private final RemoteCache<Object, Object> cache;
+   private final int pageSize;
+
+   public PagedRemoteMultimap(RemoteCache<Object, Object> cache) {
+      this(cache, DEFAULT_PAGE_SIZE);
+   }
+
+   public PagedRemoteMultimap(RemoteCache<Object, Object> cache, int pageSize) {
+      // putIfAbsent has to return the previous value to detect a concurrent writer
+      this.cache = cache.withFlags(Flag.FORCE_RETURN_VALUE);
+      this.pageSize = pageSize;
+   }
+
+   /**
+    * Adds all the values to the key.
+    *
+    * @return the number of pages written
+    */
+   public CompletableFuture<Integer> putAll(String key, Collection<String> values) {
+      List<ValuesPage> pages = new ArrayList<>();
+      List<String> current = new ArrayList<>(pageSize);
+      for (String value : values) {
+         current.add(value);
+         if (current.size() == pageSize) {
+            pages.add(new ValuesPage(current));
+            current = new ArrayList<>(pageSize);
+         }
+      }
+      if (!current.isEmpty()) {
+         pages.add(new ValuesPage(current));
+      }
+      if (pages.isEmpty()) {
+         return CompletableFuture.completedFuture(0);
+      }
+      return reservePages(key, pages.size()).thenCompose(first -> {
+         Map<Object, Object> entries = new HashMap<>();
+         for (int i = 0; i < pages.size(); i++) {
+            entries.put(pageKey(key, first + i), pages.get(i));
+         }
+         return cache.putAllAsync(entries);
+      }).thenApply(nil -> pages.size());
+   }
+
+   private CompletableFuture<Integer> reservePages(String key, int count) {
+      return cache.getWithMetadataAsync(key).thenCompose(metadata -> {
+         if (metadata == null) {
+            return cache.putIfAbsentAsync(key, count)
+                  .thenCompose(previous -> previous == null ? CompletableFuture.completedFuture(0) : reservePages(key, count));
+         }
+         int pages = (Integer) metadata.getValue();
+         return cache.replaceWithVersionAsync(key, pages + count, metadata.getVersion())
+               .thenCompose(replaced -> replaced ? CompletableFuture.completedFuture(pages) : reservePages(key, count));
+      });
+   }
+
+   public CompletableFuture<Integer> pages(String key) {
+      return cache.getAsync(key).thenApply(pages -> pages == null ? 0 : (Integer) pages);
+   }
+
+   /**
+    * @return the values of the page, empty when the page does not exist or is not written yet
+    */
+   public CompletableFuture<List<String>> page(String key, int page) {
+      return cache.getAsync(pageKey(key, page))
+            .thenApply(values -> values == null ? List.of() : ((ValuesPage) values).values());
+   }
+
+   /**
+    * Streams the values of the key, fetching the pages lazily.
+    */
+   public Stream<String> stream(String key) {
+      int pages = pages(key).join();
+      Iterator<List<String>> iterator = new Iterator<>() {
+         int next = 0;
+         CompletableFuture<List<String>> prefetched = pages > 0 ? page(key, 0) : null;
+
+         @Override
+         public boolean hasNext() {
+            return next < pages;
+         }
+
+         @Override
+         public List<String> next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            CompletableFuture<List<String>> current = prefetched;
+            next++;
+            prefetched = next < pages ? page(key, next) : null;
+            return current.join();
+         }
+      };
+      return StreamSupport.stream(Spliterators.spliterator(iterator, pages, Spliterator.ORDERED), false)
+            .flatMap(List::stream);
+   }
+
+   public CompletableFuture<Void> remove(String key) {
+      return pages(key).thenCompose(pages -> {
+         CompletableFuture<?>[] removals = new CompletableFuture[pages + 1];
+         for (int i = 0; i < pages; i++) {
+            removals[i] = cache.removeAsync(pageKey(key, i));
+         }
+         removals[pages] = cache.removeAsync(key);
+         return CompletableFuture.allOf(removals);
+      });
+   }
+
+   private static PageKey pageKey(String key, int page) {
+      return new PageKey(key, page);
+   }
+}
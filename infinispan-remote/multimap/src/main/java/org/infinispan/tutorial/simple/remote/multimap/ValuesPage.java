@@ -0,0 +1,12 @@
+package org.infinispan.tutorial.simple.remote.multimap;
+
+import org.infinispan.protostream.annotations.Proto;
+
+import java.util.List;
+
+/**
+ * A page of the values of a key in a {@link PagedRemoteMultimap}, stored as one cache entry.
+ */
+@Proto
+public record ValuesPage(List<String> values) {
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,4 +34,25 @@ public class InfinispanRemoteMultimapTest {
         assertEquals(1, people.size());
         assertEquals("Richard", people.toArray()[0]);
     }
+
+    @Test
+    public void testPagedRemoteMultimap() throws Exception {
+        assertNotNull(InfinispanRemoteMultimap.pagedMultimap);
+
+        assertEquals(20_000, InfinispanRemoteMultimap.manipulatePagedMultimap());
+
+        PagedRemoteMultimap pagedMultimap = InfinispanRemoteMultimap.pagedMultimap;
+        assertEquals(25, pagedMultimap.pages("visits").get(10, TimeUnit.SECONDS));
+        assertEquals(1000, pagedMultimap.page("visits", 0).get(10, TimeUnit.SECONDS).size());
+        assertEquals(25_000, pagedMultimap.stream("visits").count());
+
+        // A key that looks like a page of another key does not overwrite the page
+        assertEquals(1, pagedMultimap.putAll("visits#0", List.of("visitor-x")).get(10, TimeUnit.SECONDS));
+        assertEquals(1000, pagedMultimap.page("visits", 0).get(10, TimeUnit.SECONDS).size());
+        assertEquals(1, pagedMultimap.stream("visits#0").count());
+        pagedMultimap.remove("visits#0").get(10, TimeUnit.SECONDS);
+
+        pagedMultimap.remove("visits").get(10, TimeUnit.SECONDS);
+        assertEquals(0, pagedMultimap.stream("visits").count());
+    }
 }
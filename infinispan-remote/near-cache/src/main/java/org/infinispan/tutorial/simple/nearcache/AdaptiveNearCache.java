@@ -0,0 +1,112 @@
+package org.infinispan.tutorial.simple.nearcache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.near.NearCache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded near cache whose maximum number of entries can be changed at runtime.
+ * <p>
+ * Entries are stored in a Caffeine cache, like the default Hot Rod near cache, and the bound is changed through the
+ * Caffeine eviction policy. Hits and misses are counted so that {@link AdaptiveNearCacheSizer} can follow the hit
+ * ratio.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class AdaptiveNearCache<K, V> implements NearCache<K, V> {
+
+   private final Cache<K, MetadataValue<V>> cache;
+   private final ConcurrentMap<K, MetadataValue<V>> map;
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+
+   AdaptiveNearCache(long maxEntries, BiConsumer<K, MetadataValue<V>> removedConsumer) {
+      this.cache = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .<K, MetadataValue<V>>evictionListener((key, value, cause) -> {
+               // Keeps the bloom filter up to date with the evicted keys
+               if (removedConsumer != null) {
+                  removedConsumer.accept(key, value);
+               }
+            })
+            .build();
+      this.map = cache.asMap();
+   }
+
+   @Override
+   public boolean putIfAbsent(K key, MetadataValue<V> value) {
+      return map.putIfAbsent(key, value) == null;
+   }
+
+   @Override
+   public boolean replace(K key, MetadataValue<V> prevValue, MetadataValue<V> newValue) {
+      return map.replace(key, prevValue, newValue);
+   }
+
+   @Override
+   public boolean remove(K key) {
+      return map.remove(key) != null;
+   }
+
+   @Override
+   public boolean remove(K key, MetadataValue<V> value) {
+      return map.remove(key, value);
+   }
+
+   @Override
+   public MetadataValue<V> get(K key) {
+      MetadataValue<V> value = map.get(key);
+      if (value == null) {
+         misses.increment();
+      } else {
+         hits.increment();
+      }
+      return value;
+   }
+
+   @Override
+   public void clear() {
+      map.clear();
+   }
+
+   @Override
+   public int size() {
+      return (int) cache.estimatedSize();
+   }
+
+   @Override
+   public Iterator<Map.Entry<K, MetadataValue<V>>> iterator() {
+      return map.entrySet().iterator();
+   }
+
+   /**
+    * @return the current maximum number of entries
+    */
+   public long maxEntries() {
+      return cache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(Long.MAX_VALUE);
+   }
+
+   /**
+    * Changes the maximum number of entries. Shrinking evicts the least valuable entries right away.
+    */
+   public void resize(long maxEntries) {
+      cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maxEntries));
+   }
+
+   public long hits() {
+      return hits.sum();
+   }
+
+   public long misses() {
+      return misses.sum();
+   }
+}
@@ -0,0 +1,93 @@
+package org.infinispan.tutorial.simple.nearcache;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.near.NearCache;
+import org.infinispan.client.hotrod.near.NearCacheFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates {@link AdaptiveNearCache} instances and resizes them periodically with an {@link AdaptiveNearCacheSizer}.
+ * <p>
+ * Register it in the remote cache configuration together with the invalidated near cache mode. The configured
+ * {@code nearCacheMaxEntries} is the initial size:
+ *
+ * <pre>
+ * builder.remoteCache("cache")
+ *       .nearCacheMode(NearCacheMode.INVALIDATED)
+ *       .nearCacheMaxEntries(1000)
+ *       .nearCacheFactory(new AdaptiveNearCacheFactory(100, 100_000, 0.9, Duration.ofSeconds(10)));
+ * </pre>
+ *
+ * Use one factory per remote cache. {@link #sizer()} exposes the metrics of the near cache it created.
+ */
+public class AdaptiveNearCacheFactory implements NearCacheFactory, AutoCloseable {
+
+   public static final double DEFAULT_MAX_HEAP_USAGE = 0.8;
+
+   private final long minEntries;
+   private final long maxEntries;
+   private final double targetHitRatio;
+   private final double maxHeapUsage;
+   private final Duration samplingPeriod;
+   private final ScheduledExecutorService scheduler;
+   private volatile AdaptiveNearCacheSizer sizer;
+   // Guarded by this
+   private ScheduledFuture<?> sizerTask;
+
+   public AdaptiveNearCacheFactory(long minEntries, long maxEntries, double targetHitRatio, Duration samplingPeriod) {
+      this(minEntries, maxEntries, targetHitRatio, DEFAULT_MAX_HEAP_USAGE, samplingPeriod);
+   }
+
+   public AdaptiveNearCacheFactory(long minEntries, long maxEntries, double targetHitRatio, double maxHeapUsage,
+                                   Duration samplingPeriod) {
+      if (minEntries < 1 || maxEntries < minEntries) {
+         throw new IllegalArgumentException("Near cache bounds must satisfy 0 < minEntries <= maxEntries");
+      }
+      this.minEntries = minEntries;
+      this.maxEntries = maxEntries;
+      this.targetHitRatio = targetHitRatio;
+      this.maxHeapUsage = maxHeapUsage;
+      this.samplingPeriod = samplingPeriod;
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread thread = new Thread(r, "adaptive-near-cache-sizer");
+         thread.setDaemon(true);
+         return thread;
+      });
+   }
+
+   @Override
+   public synchronized <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config,
+                                                 BiConsumer<K, MetadataValue<V>> removedConsumer) {
+      long initialEntries = Math.max(minEntries, Math.min(maxEntries, config.maxEntries()));
+      AdaptiveNearCache<K, V> nearCache = new AdaptiveNearCache<>(initialEntries, removedConsumer);
+      AdaptiveNearCacheSizer newSizer =
+            new AdaptiveNearCacheSizer(nearCache, minEntries, maxEntries, targetHitRatio, maxHeapUsage);
+      long period = samplingPeriod.toMillis();
+      // The near cache is created again after a failover, stop resizing the previous one
+      if (sizerTask != null) {
+         sizerTask.cancel(false);
+      }
+      sizerTask = scheduler.scheduleAtFixedRate(newSizer, period, period, TimeUnit.MILLISECONDS);
+      sizer = newSizer;
+      return nearCache;
+   }
+
+   /**
+    * @return the sizer of the last near cache created by this factory, or null if none was created yet
+    */
+   public AdaptiveNearCacheSizer sizer() {
+      return sizer;
+   }
+
+   @Override
+   public void close() {
+      scheduler.shutdownNow();
+   }
+}
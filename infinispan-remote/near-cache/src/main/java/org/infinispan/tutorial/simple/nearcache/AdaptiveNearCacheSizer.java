@@ -0,0 +1,149 @@
+package org.infinispan.tutorial.simple.nearcache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Periodically samples the hit ratio of an {@link AdaptiveNearCache} and the heap usage, and grows or shrinks the
+ * near cache within the configured bounds.
+ * <p>
+ * The near cache doubles while it is full and below the target hit ratio, as long as the larger size is not already
+ * known to bring no gain. It halves when the working set fits in half of it, when the last growth did not improve
+ * the hit ratio, or when the heap usage goes over the configured limit. The hit ratio observed at every size is
+ * kept as the hit-ratio curve.
+ * <p>
+ * The heap usage is the usage of the old generation after the last garbage collection, so that garbage not collected
+ * yet does not shrink the near cache on every allocation spike.
+ */
+public class AdaptiveNearCacheSizer implements Runnable {
+
+   // Minimum number of reads in a sampling period to take a decision
+   static final long MIN_SAMPLE_READS = 100;
+   // Minimum hit ratio improvement for a larger near cache to be worth its memory
+   static final double MIN_GAIN = 0.01;
+   // Pools holding the long-lived objects, the old generation, or the whole heap for single-pool collectors
+   private static final List<MemoryPoolMXBean> TENURED_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+         .filter(pool -> pool.getType() == MemoryType.HEAP)
+         .filter(pool -> pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported())
+         .toList();
+
+   private final AdaptiveNearCache<?, ?> nearCache;
+   private final long minEntries;
+   private final long maxEntries;
+   private final double targetHitRatio;
+   private final double maxHeapUsage;
+   private final NavigableMap<Long, Double> hitRatioCurve = new ConcurrentSkipListMap<>();
+
+   private long lastHits;
+   private long lastMisses;
+   private double lastHitRatio;
+   private boolean grew;
+   private volatile double hitRatio;
+
+   AdaptiveNearCacheSizer(AdaptiveNearCache<?, ?> nearCache, long minEntries, long maxEntries,
+                          double targetHitRatio, double maxHeapUsage) {
+      this.nearCache = nearCache;
+      this.minEntries = minEntries;
+      this.maxEntries = maxEntries;
+      this.targetHitRatio = targetHitRatio;
+      this.maxHeapUsage = maxHeapUsage;
+   }
+
+   @Override
+   public synchronized void run() {
+      long hits = nearCache.hits();
+      long misses = nearCache.misses();
+      long windowHits = hits - lastHits;
+      long windowReads = windowHits + misses - lastMisses;
+      lastHits = hits;
+      lastMisses = misses;
+      if (windowReads < MIN_SAMPLE_READS) {
+         return;
+      }
+
+      double ratio = (double) windowHits / windowReads;
+      long size = nearCache.maxEntries();
+      hitRatio = ratio;
+      hitRatioCurve.put(size, ratio);
+
+      long newSize = nextSize(size, ratio);
+      if (newSize != size) {
+         nearCache.resize(newSize);
+      }
+      grew = newSize > size;
+      lastHitRatio = ratio;
+   }
+
+   long nextSize(long size, double ratio) {
+      if (heapUsage() > maxHeapUsage) {
+         return clamp(size / 2);
+      }
+      if (grew && ratio - lastHitRatio < MIN_GAIN) {
+         // The last growth did not pay off, step back
+         return clamp(size / 2);
+      }
+      if (ratio < targetHitRatio && nearCache.size() >= size * 9 / 10) {
+         Double largerRatio = hitRatioCurve.get(size * 2);
+         if (largerRatio == null || largerRatio - ratio >= MIN_GAIN) {
+            return clamp(size * 2);
+         }
+      }
+      if (ratio >= targetHitRatio && nearCache.size() < size / 2) {
+         // The working set fits in half of the near cache
+         return clamp(size / 2);
+      }
+      return size;
+   }
+
+   private long clamp(long size) {
+      return Math.max(minEntries, Math.min(maxEntries, size));
+   }
+
+   static double heapUsage() {
+      double usage = 0;
+      for (MemoryPoolMXBean pool : TENURED_POOLS) {
+         // Memory still used after the last collection of the pool, zero before the first one
+         MemoryUsage afterGc = pool.getCollectionUsage();
+         long max = pool.getUsage().getMax();
+         if (afterGc != null && max > 0) {
+            usage = Math.max(usage, (double) afterGc.getUsed() / max);
+         }
+      }
+      return usage;
+   }
+
+   /**
+    * @return the current maximum number of entries of the near cache
+    */
+   public long currentMaxEntries() {
+      return nearCache.maxEntries();
+   }
+
+   /**
+    * @return the number of entries stored in the near cache
+    */
+   public int currentSize() {
+      return nearCache.size();
+   }
+
+   /**
+    * @return the hit ratio of the last sampling period
+    */
+   public double hitRatio() {
+      return hitRatio;
+   }
+
+   /**
+    * @return the last hit ratio observed for every near cache size, ordered by size
+    */
+   public Map<Long, Double> hitRatioCurve() {
+      return Collections.unmodifiableMap(hitRatioCurve);
+   }
+}
@@ -4,21 +4,31 @@ import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.jmx.RemoteCacheClientStatisticsMXBean;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
 
+/**
+ * The Near Cache simple tutorial.
+ *
+ * Reads the same keys with and without near caching and prints the near cache hits and misses.
+ * See the NearCacheBenchmark in the benchmarks module to size a near cache for realistic access patterns.
+ */
 public class InfinispanNearCache {
 
    public static final String CACHE_WITH_NEAR_CACHING = "testCacheNearCaching";
+   public static final String CACHE_WITH_ADAPTIVE_NEAR_CACHING = "testCacheAdaptiveNearCaching";
 
    static RemoteCacheManager cacheManager;
    static RemoteCache<Integer, String> testCache;
    static RemoteCache<Integer, String> withNearCaching;
+   static RemoteCache<Integer, String> withAdaptiveNearCaching;
+   static AdaptiveNearCacheFactory adaptiveNearCacheFactory;
 
    public static void main(String[] args) {
       connectToInfinispan();
@@ -26,26 +36,41 @@ public class InfinispanNearCache {
       for (int i = 1; i<= 20; i++) {
          testCache.put(i, String.valueOf(i));
          withNearCaching.put(i, String.valueOf(i));
+         withAdaptiveNearCaching.put(i, String.valueOf(i));
       }
 
-      // Read both caches data
+      // Read the caches data
       readCache(testCache);
       readCache(withNearCaching);
+      readCache(withAdaptiveNearCaching);
+      printAdaptiveNearCacheMetrics();
 
       disconnect(false);
    }
 
    static void readCache(RemoteCache<Integer, String> cache) {
-      Instant start = Instant.now();
+      long start = System.nanoTime();
       Random random = new Random();
       random.ints(10_000, 1, 20).forEach(num -> cache.get(num));
-      Instant finish = Instant.now();
-      long timeElapsed = Duration.between(start, finish).toMillis();
-      System.out.println(String.format("Time to complete with cache %s is %d milliseconds", cache.getName(), timeElapsed));
+      long timeElapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      // Client statistics count the reads served by the near cache
+      RemoteCacheClientStatisticsMXBean stats = cache.clientStatistics();
+      System.out.println(String.format("Time to complete with cache %s is %d milliseconds. Near cache hits %d, misses %d",
+            cache.getName(), timeElapsed, stats.getNearCacheHits(), stats.getNearCacheMisses()));
+   }
+
+   static void printAdaptiveNearCacheMetrics() {
+      AdaptiveNearCacheSizer sizer = adaptiveNearCacheFactory.sizer();
+      // Sample now instead of waiting for the next sampling period
+      sizer.run();
+      System.out.println(String.format("Adaptive near cache max entries %d, hit ratio %.2f, hit ratio curve %s",
+            sizer.currentMaxEntries(), sizer.hitRatio(), sizer.hitRatioCurve()));
    }
 
    public static void connectToInfinispan() {
       ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
+      // Enable client statistics to count near cache hits
+      builder.statistics().enable();
       // Add an additional cache with near caching configuration
       builder.remoteCache(CACHE_WITH_NEAR_CACHING)
               .configuration(TutorialsConnectorHelper.TUTORIAL_CACHE_CONFIG.replace("CACHE_NAME", CACHE_WITH_NEAR_CACHING))
@@ -53,17 +78,28 @@ public class InfinispanNearCache {
               .nearCacheMaxEntries(20)
               .nearCacheUseBloomFilter(true);
 
+      // Add a cache with a near cache that grows or shrinks between 10 and 10000 entries to reach a 90% hit ratio
+      adaptiveNearCacheFactory = new AdaptiveNearCacheFactory(10, 10_000, 0.9, Duration.ofSeconds(10));
+      builder.remoteCache(CACHE_WITH_ADAPTIVE_NEAR_CACHING)
+              .configuration(TutorialsConnectorHelper.TUTORIAL_CACHE_CONFIG.replace("CACHE_NAME", CACHE_WITH_ADAPTIVE_NEAR_CACHING))
+              .nearCacheMode(NearCacheMode.INVALIDATED)
+              .nearCacheMaxEntries(20)
+              .nearCacheFactory(adaptiveNearCacheFactory);
+
       // Connect to the server with the near cache configuration for the test cache
       cacheManager = TutorialsConnectorHelper.connect(builder);
       testCache = cacheManager.getCache(TUTORIAL_CACHE_NAME);
       withNearCaching = cacheManager.getCache(CACHE_WITH_NEAR_CACHING);
+      withAdaptiveNearCaching = cacheManager.getCache(CACHE_WITH_ADAPTIVE_NEAR_CACHING);
    }
 
    public static void disconnect(boolean removeCache) {
       if (removeCache) {
          cacheManager.administration().removeCache(TUTORIAL_CACHE_NAME);
          cacheManager.administration().removeCache(CACHE_WITH_NEAR_CACHING);
+         cacheManager.administration().removeCache(CACHE_WITH_ADAPTIVE_NEAR_CACHING);
       }
+      adaptiveNearCacheFactory.close();
       // Stop the cache manager and release all resources
       cacheManager.stop();
    }
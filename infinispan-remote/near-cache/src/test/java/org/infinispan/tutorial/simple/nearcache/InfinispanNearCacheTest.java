@@ -4,7 +4,9 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanNearCacheTest {
 
@@ -24,4 +26,21 @@ public class InfinispanNearCacheTest {
         assertNotNull(InfinispanNearCache.withNearCaching);
     }
 
+    @Test
+    public void testAdaptiveNearCache() {
+        assertNotNull(InfinispanNearCache.withAdaptiveNearCaching);
+        for (int i = 1; i <= 20; i++) {
+            InfinispanNearCache.withAdaptiveNearCaching.put(i, String.valueOf(i));
+        }
+        InfinispanNearCache.readCache(InfinispanNearCache.withAdaptiveNearCaching);
+
+        AdaptiveNearCacheSizer sizer = InfinispanNearCache.adaptiveNearCacheFactory.sizer();
+        assertNotNull(sizer);
+        sizer.run();
+
+        assertTrue(sizer.hitRatio() > 0.9);
+        assertTrue(sizer.currentMaxEntries() >= 10 && sizer.currentMaxEntries() <= 10_000);
+        assertFalse(sizer.hitRatioCurve().isEmpty());
+    }
+
 }
\ No newline at end of file
@@ -1,10 +1,7 @@
 package org.infinispan.tutorial.simple.remote.persistence;
 
-import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
-import org.infinispan.protostream.GeneratedSchema;
-
-import static org.infinispan.query.remote.client.ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME;
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 
 public class ProtostreamSchemaUploader {
 
@@ -15,16 +12,11 @@ public class ProtostreamSchemaUploader {
    }
 
    public void registerSchema() {
-      RemoteCache<String, String> metadataCache =
-            cacheManager.getCache(PROTOBUF_METADATA_CACHE_NAME);
-      GeneratedSchema schema = new TechLibrarySchemaImpl();
-      metadataCache.put(schema.getProtoFileName(), schema.getProtoFile());
+      // Only uploaded when the schema in the server is missing or different
+      SchemaRegistry.register(cacheManager, new TechLibrarySchemaImpl());
    }
 
    public void unregisterSchema() {
-      RemoteCache<String, String> metadataCache =
-            cacheManager.getCache(PROTOBUF_METADATA_CACHE_NAME);
-      GeneratedSchema schema = new TechLibrarySchemaImpl();
-      metadataCache.remove(schema.getProtoFileName());
+      SchemaRegistry.unregister(cacheManager, new TechLibrarySchemaImpl());
    }
 }
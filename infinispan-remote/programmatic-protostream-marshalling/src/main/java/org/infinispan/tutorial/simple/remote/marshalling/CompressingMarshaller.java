@@ -0,0 +1,152 @@
+package org.infinispan.tutorial.simple.remote.marshalling;
+
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.marshall.AbstractMarshaller;
+import org.infinispan.commons.marshall.Marshaller;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Marshaller that compresses with Deflate the payloads of another marshaller, usually a ProtoStreamMarshaller.
+ * <p>
+ * Every payload starts with a header byte. Payloads smaller than the threshold, or that do not shrink, are stored
+ * as they are after the header. Larger payloads are stored deflated, preceded by their original length.
+ * <p>
+ * The output is not valid Protobuf anymore, so use it as a per-cache marshaller for caches with the
+ * {@code application/octet-stream} encoding. Indexing and queries are not available for those caches.
+ */
+public class CompressingMarshaller extends AbstractMarshaller {
+
+   public static final int DEFAULT_THRESHOLD = 1024;
+
+   static final byte UNCOMPRESSED = 0;
+   static final byte DEFLATED = 1;
+
+   private final Marshaller delegate;
+   private final int threshold;
+   private final int level;
+   private final LongAdder uncompressedBytes = new LongAdder();
+   private final LongAdder marshalledBytes = new LongAdder();
+
+   public CompressingMarshaller(Marshaller delegate) {
+      this(delegate, DEFAULT_THRESHOLD, Deflater.BEST_SPEED);
+   }
+
+   public CompressingMarshaller(Marshaller delegate, int threshold, int level) {
+      this.delegate = delegate;
+      this.threshold = threshold;
+      this.level = level;
+   }
+
+   @Override
+   protected ByteBuffer objectToBuffer(Object o, int estimatedSize) throws IOException, InterruptedException {
+      byte[] raw = delegate.objectToByteBuffer(o, estimatedSize);
+      byte[] payload = raw.length < threshold ? null : deflate(raw);
+      if (payload == null) {
+         payload = new byte[raw.length + 1];
+         payload[0] = UNCOMPRESSED;
+         System.arraycopy(raw, 0, payload, 1, raw.length);
+      }
+      uncompressedBytes.add(raw.length);
+      marshalledBytes.add(payload.length);
+      return ByteBufferImpl.create(payload);
+   }
+
+   private byte[] deflate(byte[] raw) {
+      if (raw.length <= 5) {
+         return null;
+      }
+      Deflater deflater = new Deflater(level);
+      try {
+         deflater.setInput(raw);
+         deflater.finish();
+         // Header byte and original length first, give up when the output is not smaller than the input
+         byte[] payload = new byte[raw.length];
+         payload[0] = DEFLATED;
+         writeInt(payload, 1, raw.length);
+         int length = 5;
+         while (!deflater.finished() && length < payload.length) {
+            length += deflater.deflate(payload, length, payload.length - length);
+         }
+         return deflater.finished() ? Arrays.copyOf(payload, length) : null;
+      } finally {
+         deflater.end();
+      }
+   }
+
+   @Override
+   public Object objectFromByteBuffer(byte[] buf, int offset, int length) throws IOException, ClassNotFoundException {
+      switch (buf[offset]) {
+         case UNCOMPRESSED:
+            return delegate.objectFromByteBuffer(buf, offset + 1, length - 1);
+         case DEFLATED:
+            return delegate.objectFromByteBuffer(inflate(buf, offset, length));
+         default:
+            throw new IOException("Unknown compression header " + buf[offset]);
+      }
+   }
+
+   private static byte[] inflate(byte[] buf, int offset, int length) throws IOException {
+      byte[] raw = new byte[readInt(buf, offset + 1)];
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(buf, offset + 5, length - 5);
+         int read = 0;
+         while (read < raw.length && !inflater.finished()) {
+            int n = inflater.inflate(raw, read, raw.length - read);
+            if (n == 0 && inflater.needsInput()) {
+               throw new IOException("Truncated compressed payload");
+            }
+            read += n;
+         }
+         return raw;
+      } catch (DataFormatException e) {
+         throw new IOException(e);
+      } finally {
+         inflater.end();
+      }
+   }
+
+   private static void writeInt(byte[] buf, int offset, int value) {
+      buf[offset] = (byte) (value >>> 24);
+      buf[offset + 1] = (byte) (value >>> 16);
+      buf[offset + 2] = (byte) (value >>> 8);
+      buf[offset + 3] = (byte) value;
+   }
+
+   private static int readInt(byte[] buf, int offset) {
+      return (buf[offset] & 0xFF) << 24 | (buf[offset + 1] & 0xFF) << 16 | (buf[offset + 2] & 0xFF) << 8
+            | buf[offset + 3] & 0xFF;
+   }
+
+   @Override
+   public boolean isMarshallable(Object o) throws Exception {
+      return delegate.isMarshallable(o);
+   }
+
+   @Override
+   public MediaType mediaType() {
+      return MediaType.APPLICATION_OCTET_STREAM;
+   }
+
+   /**
+    * @return the number of bytes produced by the wrapped marshaller
+    */
+   public long uncompressedBytes() {
+      return uncompressedBytes.sum();
+   }
+
+   /**
+    * @return the number of bytes sent to the server, headers included
+    */
+   public long marshalledBytes() {
+      return marshalledBytes.sum();
+   }
+}
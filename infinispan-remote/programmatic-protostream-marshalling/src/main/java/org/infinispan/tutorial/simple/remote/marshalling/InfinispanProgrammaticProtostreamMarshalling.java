@@ -6,6 +6,8 @@ import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TU
 import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
@@ -23,14 +25,23 @@ import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
  */
 public class InfinispanProgrammaticProtostreamMarshalling {
 
+   public static final String COMPRESSED_CACHE_NAME = "compressedMagazines";
+   public static final String COMPRESSED_CACHE_CONFIG =
+         "<distributed-cache name=\"CACHE_NAME\" statistics=\"true\">\n"
+         + "    <encoding media-type=\"application/octet-stream\"/>\n"
+         + "</distributed-cache>";
+
    static Schema schema = MagazineSchemaCreator.magazineSchema();;
    static RemoteCacheManager client;
    static RemoteCache<String, Magazine> magazineRemoteCache;
+   static RemoteCache<String, Magazine> compressedMagazineRemoteCache;
+   static CompressingMarshaller compressingMarshaller;
 
    public static void main(String[] args) throws Exception {
       connectToInfinispan();
 
       manipulateCache();
+      manipulateCompressedCache();
 
       disconnect(false);
    }
@@ -46,6 +57,13 @@ public class InfinispanProgrammaticProtostreamMarshalling {
       builder.marshaller(marshaller);
       builder.remoteCache(TUTORIAL_CACHE_NAME);
 
+      // Values bigger than 1KB are compressed in this cache. The compressed payloads are opaque for the server,
+      // so the cache stores them as application/octet-stream
+      compressingMarshaller = new CompressingMarshaller(marshaller);
+      builder.remoteCache(COMPRESSED_CACHE_NAME)
+            .configuration(COMPRESSED_CACHE_CONFIG.replace("CACHE_NAME", COMPRESSED_CACHE_NAME))
+            .marshaller(compressingMarshaller);
+
       // Connect to the server
       client = TutorialsConnectorHelper.connect(builder);
 
@@ -54,6 +72,7 @@ public class InfinispanProgrammaticProtostreamMarshalling {
 
       // Get the people cache, create it if needed with the default configuration
       magazineRemoteCache = client.getCache(TUTORIAL_CACHE_NAME);
+      compressedMagazineRemoteCache = client.getCache(COMPRESSED_CACHE_NAME);
    }
 
    static void manipulateCache() {
@@ -72,6 +91,22 @@ public class InfinispanProgrammaticProtostreamMarshalling {
       System.out.println(magazineRemoteCache.get("popular-time"));
    }
 
+   static Magazine manipulateCompressedCache() {
+      // A magazine with many long stories, like real payloads
+      List<String> stories = IntStream.range(0, 200)
+            .mapToObj(i -> "Story " + i + ": the quick brown fox jumps over the lazy dog, again and again and again.")
+            .toList();
+      Magazine bigMagazine = new Magazine("THE NEW YORKER", YearMonth.of(2024, 2), stories);
+      Magazine smallMagazine = new Magazine("MAD", YearMonth.of(1952, 10), Collections.singletonList("Blob named Melvin"));
+
+      compressedMagazineRemoteCache.put("big-new-yorker", bigMagazine);
+      compressedMagazineRemoteCache.put("small-mad", smallMagazine);
+
+      System.out.printf("Marshalled %d bytes, sent %d bytes%n",
+            compressingMarshaller.uncompressedBytes(), compressingMarshaller.marshalledBytes());
+      return compressedMagazineRemoteCache.get("big-new-yorker");
+   }
+
    private static void registerMagazineSchemaInTheServer(RemoteCacheManager cacheManager) {
       // Retrieve metadata cache
       RemoteCache<String, String> metadataCache =
@@ -84,6 +119,7 @@ public class InfinispanProgrammaticProtostreamMarshalling {
    public static void disconnect(boolean removeCaches) {
       if (removeCaches && client != null) {
          client.administration().removeCache(TUTORIAL_CACHE_NAME);
+         client.administration().removeCache(COMPRESSED_CACHE_NAME);
       }
 
       TutorialsConnectorHelper.stop(client);
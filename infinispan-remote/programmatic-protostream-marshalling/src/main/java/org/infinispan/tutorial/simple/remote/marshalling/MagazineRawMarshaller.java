@@ -0,0 +1,86 @@
+package org.infinispan.tutorial.simple.remote.marshalling;
+
+import org.infinispan.protostream.ProtobufTagMarshaller;
+import org.infinispan.protostream.TagReader;
+import org.infinispan.protostream.TagWriter;
+import org.infinispan.protostream.descriptors.WireType;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tag based marshaller for {@link Magazine}, producing the same bytes as {@link MagazineMarshaller}.
+ * <p>
+ * Fields are written and read by tag number, like the marshallers generated from {@code @Proto} annotations,
+ * without looking up the field descriptors by name. Only the list of stories is allocated while reading.
+ */
+public class MagazineRawMarshaller implements ProtobufTagMarshaller<Magazine> {
+
+    static final int NAME = WireType.makeTag(1, WireType.WIRETYPE_LENGTH_DELIMITED);
+    static final int PUBLICATION_YEAR = WireType.makeTag(2, WireType.WIRETYPE_VARINT);
+    static final int PUBLICATION_MONTH = WireType.makeTag(3, WireType.WIRETYPE_VARINT);
+    static final int STORIES = WireType.makeTag(4, WireType.WIRETYPE_LENGTH_DELIMITED);
+
+    // Repeated fields are not prefixed by their size, start with room for a typical number of stories
+    static final int STORIES_INITIAL_CAPACITY = 16;
+
+    @Override
+    public Magazine read(ReadContext ctx) throws IOException {
+        TagReader reader = ctx.getReader();
+        String name = null;
+        int year = 0;
+        int month = 1;
+        List<String> stories = null;
+        boolean done = false;
+        while (!done) {
+            int tag = reader.readTag();
+            if (tag == 0) {
+                done = true;
+            } else if (tag == NAME) {
+                name = reader.readString();
+            } else if (tag == PUBLICATION_YEAR) {
+                year = reader.readInt32();
+            } else if (tag == PUBLICATION_MONTH) {
+                month = reader.readInt32();
+            } else if (tag == STORIES) {
+                if (stories == null) {
+                    stories = new ArrayList<>(STORIES_INITIAL_CAPACITY);
+                }
+                stories.add(reader.readString());
+            } else if (!reader.skipField(tag)) {
+                done = true;
+            }
+        }
+        return new Magazine(name, YearMonth.of(year, month), stories == null ? Collections.emptyList() : stories);
+    }
+
+    @Override
+    public void write(WriteContext ctx, Magazine magazine) throws IOException {
+        TagWriter writer = ctx.getWriter();
+        if (magazine.name() != null) {
+            writer.writeString(1, magazine.name());
+        }
+        YearMonth yearMonth = magazine.publicationDate();
+        writer.writeInt32(2, yearMonth.getYear());
+        writer.writeInt32(3, yearMonth.getMonthValue());
+        List<String> stories = magazine.stories();
+        if (stories != null) {
+            for (int i = 0; i < stories.size(); i++) {
+                writer.writeString(4, stories.get(i));
+            }
+        }
+    }
+
+    @Override
+    public Class<? extends Magazine> getJavaClass() {
+        return Magazine.class;
+    }
+
+    @Override
+    public String getTypeName() {
+        return "magazine_sample.Magazine";
+    }
+}
@@ -1,11 +1,20 @@
 package org.infinispan.tutorial.simple.remote.marshalling;
 
+import org.infinispan.protostream.BaseMarshaller;
+import org.infinispan.protostream.FileDescriptorSource;
+import org.infinispan.protostream.ProtobufUtil;
+import org.infinispan.protostream.SerializationContext;
+import org.infinispan.protostream.schema.Schema;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.time.YearMonth;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanProgrammaticProtostreamMarshallingTest {
 
@@ -28,4 +37,38 @@ public class InfinispanProgrammaticProtostreamMarshallingTest {
         InfinispanProgrammaticProtostreamMarshalling.manipulateCache();
         assertEquals(3, InfinispanProgrammaticProtostreamMarshalling.magazineRemoteCache.size());
     }
+
+    @Test
+    public void testCompressedMarshalling() {
+        assertNotNull(InfinispanProgrammaticProtostreamMarshalling.compressedMagazineRemoteCache);
+
+        Magazine magazine = InfinispanProgrammaticProtostreamMarshalling.manipulateCompressedCache();
+
+        assertEquals(200, magazine.stories().size());
+        assertEquals("MAD", InfinispanProgrammaticProtostreamMarshalling.compressedMagazineRemoteCache.get("small-mad").name());
+        CompressingMarshaller marshaller = InfinispanProgrammaticProtostreamMarshalling.compressingMarshaller;
+        assertTrue(marshaller.marshalledBytes() < marshaller.uncompressedBytes());
+    }
+
+    @Test
+    public void testRawMarshallerCompatibility() throws Exception {
+        SerializationContext messageContext = serializationContext(new MagazineMarshaller());
+        SerializationContext rawContext = serializationContext(new MagazineRawMarshaller());
+        Magazine magazine = new Magazine("TIME", YearMonth.of(1923, 3),
+                Arrays.asList("First helicopter", "Change in divorce law", "Adam's Rib movie released"));
+
+        // Each marshaller reads what the other one writes
+        assertEquals(magazine, ProtobufUtil.fromByteArray(rawContext,
+                ProtobufUtil.toByteArray(messageContext, magazine), Magazine.class));
+        assertEquals(magazine, ProtobufUtil.fromByteArray(messageContext,
+                ProtobufUtil.toByteArray(rawContext, magazine), Magazine.class));
+    }
+
+    private static SerializationContext serializationContext(BaseMarshaller<Magazine> marshaller) {
+        Schema schema = MagazineSchemaCreator.magazineSchema();
+        SerializationContext serializationContext = ProtobufUtil.newSerializationContext();
+        serializationContext.registerProtoFiles(FileDescriptorSource.fromString(schema.getName(), schema.toString()));
+        serializationContext.registerMarshaller(marshaller);
+        return serializationContext;
+    }
 }
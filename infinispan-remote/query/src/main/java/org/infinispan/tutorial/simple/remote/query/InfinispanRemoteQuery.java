@@ -4,15 +4,15 @@ import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.commons.api.query.Query;
-import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
 import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-import static org.infinispan.query.remote.client.ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * The Remote Query simple tutorial.
@@ -27,13 +27,16 @@ public class InfinispanRemoteQuery {
    public static final String INDEXED_PEOPLE_CACHE = "indexedPeopleCache";
    static RemoteCacheManager client;
    static RemoteCache<PersonKey, Person> peopleCache;
+   static QueryResultCache<PersonKey, Person> resultCache;
 
    public static void main(String[] args) throws Exception {
       connectToInfinispan();
 
       addDataToCache();
       queryAll();
+      queryAllStreamed(2);
       queryWithWhereStatementOnValues();
+      queryWithWhereStatementOnValuesCached("Granger");
       queryByKey();
       queryWithProjection();
       deleteByQuery();
@@ -51,6 +54,20 @@ public class InfinispanRemoteQuery {
       return queryResult;
    }
 
+   static long queryAllStreamed(int pageSize) {
+      // Query all, reading the results one page at a time instead of in a single response
+      System.out.println("== Query all, streamed in pages of " + pageSize);
+      StreamingQuery<Person> query = new StreamingQuery<>(peopleCache,
+            "FROM tutorial.Person p ORDER BY p.lastName, p.firstName", Map.of(), pageSize, ForkJoinPool.commonPool());
+      // Print the results as they arrive
+      try (Stream<Person> people = query.stream()) {
+         return people.mapToLong(person -> {
+            System.out.println(person);
+            return 1;
+         }).sum();
+      }
+   }
+
    static List<Person> deleteByQuery() {
       Query<Person> query = peopleCache.query("DELETE FROM tutorial.Person p where p.key.pseudo = 'dmalfoy'");
       System.out.println("== DELETE count:" + query.execute().count().value());
@@ -101,6 +118,16 @@ public class InfinispanRemoteQuery {
       return queryResult;
    }
 
+   static List<Person> queryWithWhereStatementOnValuesCached(String lastName) {
+      // The same query, answered locally once the continuous query has delivered the current results
+      System.out.println("== Cached query on values");
+      List<Person> queryResult = resultCache.list("FROM tutorial.Person p where p.lastName = :lastName",
+            Map.of("lastName", lastName));
+      // Print the results
+      System.out.println(queryResult);
+      return queryResult;
+   }
+
    static void connectToInfinispan() throws Exception {
       ConfigurationBuilder builder = TutorialsConnectorHelper.connectionConfig();
 
@@ -119,6 +146,9 @@ public class InfinispanRemoteQuery {
 
       // Get the people cache, create it if needed with the default configuration
       peopleCache = client.getCache(INDEXED_PEOPLE_CACHE);
+
+      // Cache the results of repeated queries in the client
+      resultCache = new QueryResultCache<>(peopleCache);
    }
 
    static void addDataToCache() {
@@ -138,6 +168,9 @@ public class InfinispanRemoteQuery {
    }
 
    public static void disconnect(boolean removeCaches) {
+      // Remove the continuous queries of the cached results
+      resultCache.close();
+
       if (removeCaches) {
          client.administration().removeCache(INDEXED_PEOPLE_CACHE);
       }
@@ -147,13 +180,8 @@ public class InfinispanRemoteQuery {
 
    record PersonDTO(String pseudo, String fullName){}
 
-   private static void addPersonSchema(RemoteCacheManager cacheManager) {
-      // Retrieve metadata cache
-      RemoteCache<String, String> metadataCache =
-            cacheManager.getCache(PROTOBUF_METADATA_CACHE_NAME);
-
-      // Define the new schema on the server too
-      GeneratedSchema schema = new TutorialSchemaImpl();
-      metadataCache.put(schema.getProtoFileName(), schema.getProtoFile());
+   static SchemaRegistry.Result addPersonSchema(RemoteCacheManager cacheManager) {
+      // Define the new schema on the server too, unless the server already has the same schema
+      return SchemaRegistry.register(cacheManager, new TutorialSchemaImpl());
    }
 }
@@ -0,0 +1,175 @@
+package org.infinispan.tutorial.simple.remote.query;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.commons.api.query.ContinuousQuery;
+import org.infinispan.commons.api.query.ContinuousQueryListener;
+import org.infinispan.commons.api.query.Query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side cache of query results, kept up to date by a continuous query per cached query.
+ * <p>
+ * The first time a query string and parameters are seen, a continuous query with the same predicate is registered.
+ * Its events add, replace and remove the matching values, so later calls return the local results without
+ * contacting the server. Until the continuous query has delivered as many results as the last run of the regular
+ * query returned, calls still run the query in the server.
+ * <p>
+ * The local results are eventually consistent with the writes: a write is seen once its event has arrived, so a
+ * call right after a write may still return the previous results.
+ * <p>
+ * Results are returned in no particular order, so do not use queries with {@code ORDER BY} or pagination. Every
+ * cached query keeps a listener in the server, so the number of cached queries is bounded. When the bound is
+ * reached, the least recently used query is evicted and its listener removed from the server.
+ */
+public class QueryResultCache<K, V> implements AutoCloseable {
+
+   public static final int DEFAULT_MAX_QUERIES = 100;
+
+   record QueryKey(String queryString, Map<String, Object> parameters) {
+   }
+
+   private final class Results implements ContinuousQueryListener<K, V> {
+      final Map<K, V> values = new ConcurrentHashMap<>();
+      // Number of results of the last run of the query in the server
+      volatile long expectedCount = Long.MAX_VALUE;
+      volatile boolean ready;
+
+      @Override
+      public void resultJoining(K key, V value) {
+         values.put(key, value);
+      }
+
+      @Override
+      public void resultUpdated(K key, V value) {
+         values.put(key, value);
+      }
+
+      @Override
+      public void resultLeaving(K key) {
+         values.remove(key);
+      }
+
+      boolean isReady() {
+         if (!ready && values.size() >= expectedCount) {
+            ready = true;
+         }
+         return ready;
+      }
+   }
+
+   private final RemoteCache<K, V> cache;
+   private final ContinuousQuery<K, V> continuousQuery;
+   private final int maxQueries;
+   // In access order, the first entry is the least recently used. Guarded by itself
+   private final Map<QueryKey, Results> results = new LinkedHashMap<>(16, 0.75f, true);
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+
+   public QueryResultCache(RemoteCache<K, V> cache) {
+      this(cache, DEFAULT_MAX_QUERIES);
+   }
+
+   public QueryResultCache(RemoteCache<K, V> cache, int maxQueries) {
+      if (maxQueries < 1) {
+         throw new IllegalArgumentException("maxQueries must be positive");
+      }
+      this.cache = cache;
+      this.continuousQuery = cache.continuousQuery();
+      this.maxQueries = maxQueries;
+   }
+
+   public List<V> list(String queryString) {
+      return list(queryString, Map.of());
+   }
+
+   public List<V> list(String queryString, Map<String, Object> parameters) {
+      QueryKey key = new QueryKey(queryString, Map.copyOf(parameters));
+      Results cached = results(key);
+      if (cached.isReady()) {
+         hits.increment();
+         return List.copyOf(cached.values.values());
+      }
+      misses.increment();
+      List<V> values = query(key).execute().list();
+      // Entries may have left the results meanwhile, so the latest count is the one to reach
+      cached.expectedCount = values.size();
+      return values;
+   }
+
+   private Results results(QueryKey key) {
+      List<Results> evicted = new ArrayList<>();
+      Results cached;
+      synchronized (results) {
+         cached = results.get(key);
+         if (cached == null) {
+            cached = new Results();
+            continuousQuery.addContinuousQueryListener(query(key), cached);
+            results.put(key, cached);
+            for (Iterator<Results> it = results.values().iterator(); results.size() > maxQueries; ) {
+               evicted.add(it.next());
+               it.remove();
+            }
+         }
+      }
+      evicted.forEach(continuousQuery::removeContinuousQueryListener);
+      return cached;
+   }
+
+   private Query<V> query(QueryKey key) {
+      Query<V> query = cache.query(key.queryString());
+      if (!key.parameters().isEmpty()) {
+         query.setParameters(key.parameters());
+      }
+      return query;
+   }
+
+   /**
+    * Stops updating the results of the query and forgets them.
+    */
+   public void invalidate(String queryString, Map<String, Object> parameters) {
+      Results removed;
+      synchronized (results) {
+         removed = results.remove(new QueryKey(queryString, Map.copyOf(parameters)));
+      }
+      if (removed != null) {
+         continuousQuery.removeContinuousQueryListener(removed);
+      }
+   }
+
+   public int size() {
+      synchronized (results) {
+         return results.size();
+      }
+   }
+
+   /**
+    * @return the number of calls answered with the local results
+    */
+   public long hits() {
+      return hits.sum();
+   }
+
+   /**
+    * @return the number of calls that ran the query in the server
+    */
+   public long misses() {
+      return misses.sum();
+   }
+
+   @Override
+   public void close() {
+      List<Results> removed;
+      synchronized (results) {
+         removed = new ArrayList<>(results.values());
+         results.clear();
+      }
+      removed.forEach(continuousQuery::removeContinuousQueryListener);
+   }
+}
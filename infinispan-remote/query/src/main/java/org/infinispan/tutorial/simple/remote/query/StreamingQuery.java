@@ -0,0 +1,116 @@
+package org.infinispan.tutorial.simple.remote.query;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.commons.api.query.Query;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs an Ickle query one page at a time, so that only a page of results is in memory at once.
+ * <p>
+ * Pages are read with {@code startOffset} and {@code maxResults}. While the caller consumes a page, the next one is
+ * already being fetched. The query should have an {@code ORDER BY} on sortable fields that identify each result, or
+ * results may move between pages when the sort order is not stable.
+ */
+public class StreamingQuery<T> {
+
+   public static final int DEFAULT_PAGE_SIZE = 1000;
+
+   private final RemoteCache<?, ?> cache;
+   private final String queryString;
+   private final Map<String, Object> parameters;
+   private final int pageSize;
+   private final Executor executor;
+
+   public StreamingQuery(RemoteCache<?, ?> cache, String queryString) {
+      this(cache, queryString, Map.of(), DEFAULT_PAGE_SIZE, ForkJoinPool.commonPool());
+   }
+
+   public StreamingQuery(RemoteCache<?, ?> cache, String queryString, Map<String, Object> parameters, int pageSize,
+                         Executor executor) {
+      if (pageSize <= 0) {
+         throw new IllegalArgumentException("The page size must be positive");
+      }
+      this.cache = cache;
+      this.queryString = queryString;
+      this.parameters = parameters;
+      this.pageSize = pageSize;
+      this.executor = executor;
+   }
+
+   /**
+    * Fetches one page of results in the executor.
+    */
+   public CompletableFuture<List<T>> page(long offset) {
+      return CompletableFuture.supplyAsync(() -> {
+         // A new query for every page, so a prefetch never changes the query of the page being read
+         Query<T> query = cache.query(queryString);
+         if (!parameters.isEmpty()) {
+            query.setParameters(parameters);
+         }
+         return query.startOffset(offset).maxResults(pageSize).execute().list();
+      }, executor);
+   }
+
+   public Iterator<T> iterator() {
+      return new Iterator<>() {
+         long nextOffset = pageSize;
+         CompletableFuture<List<T>> prefetched = page(0);
+         List<T> current = List.of();
+         int index;
+
+         @Override
+         public boolean hasNext() {
+            while (index == current.size()) {
+               if (prefetched == null) {
+                  return false;
+               }
+               current = join(prefetched);
+               index = 0;
+               // A short page is the last one
+               if (current.size() == pageSize) {
+                  prefetched = page(nextOffset);
+                  nextOffset += pageSize;
+               } else {
+                  prefetched = null;
+               }
+            }
+            return true;
+         }
+
+         @Override
+         public T next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            return current.get(index++);
+         }
+      };
+   }
+
+   public Stream<T> stream() {
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+   }
+
+   private static <T> List<T> join(CompletableFuture<List<T>> page) {
+      try {
+         return page.join();
+      } catch (CompletionException e) {
+         if (e.getCause() instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+         }
+         throw e;
+      }
+   }
+}
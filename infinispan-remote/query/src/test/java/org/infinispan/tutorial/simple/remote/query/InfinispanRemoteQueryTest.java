@@ -1,11 +1,15 @@
 package org.infinispan.tutorial.simple.remote.query;
 
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -58,4 +62,80 @@ public class InfinispanRemoteQueryTest {
         peopleFilteredByKey = InfinispanRemoteQuery.queryByKey();
         assertEquals(0, peopleFilteredByKey.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingQuery() {
+        // People of their own town, so that the other tests do not see them
+        Map<PersonKey, Person> people = new HashMap<>();
+        people.put(new PersonKey("s1", "nlongbottom"), new Person("Neville", "Longbottom", 1990, "Hogsmeade"));
+        people.put(new PersonKey("s2", "sfinnigan"), new Person("Seamus", "Finnigan", 1990, "Hogsmeade"));
+        people.put(new PersonKey("s3", "habbott"), new Person("Hannah", "Abbott", 1991, "Hogsmeade"));
+        people.put(new PersonKey("s4", "sbones"), new Person("Susan", "Bones", 1991, "Hogsmeade"));
+        InfinispanRemoteQuery.peopleCache.putAll(people);
+        try {
+            // Pages of 1, 3 and 4 results: several full pages, a short last page, and an empty last page
+            for (int pageSize : new int[] {1, 3, 4}) {
+                StreamingQuery<Person> query = new StreamingQuery<>(InfinispanRemoteQuery.peopleCache,
+                        "FROM tutorial.Person p WHERE p.bornIn = :town ORDER BY p.lastName, p.firstName",
+                        Map.of("town", "Hogsmeade"), pageSize, ForkJoinPool.commonPool());
+                List<Person> streamed = query.stream().toList();
+                assertEquals(Set.copyOf(people.values()), Set.copyOf(streamed));
+                assertEquals(List.of("Abbott", "Bones", "Finnigan", "Longbottom"), streamed.stream().map(Person::lastName).toList());
+            }
+        } finally {
+            people.keySet().forEach(InfinispanRemoteQuery.peopleCache::remove);
+        }
+    }
+
+    @Test
+    public void testSchemaNotUploadedTwice() {
+        // The schema was registered when connecting, the server already has the same content
+        SchemaRegistry.Result result = InfinispanRemoteQuery.addPersonSchema(InfinispanRemoteQuery.client);
+        assertTrue(result.uploaded().isEmpty());
+        assertEquals(Set.of(new TutorialSchemaImpl().getProtoFileName()), result.unchanged());
+    }
+
+    @Test
+    public void testQueryResultCache() throws Exception {
+        QueryResultCache<PersonKey, Person> resultCache = InfinispanRemoteQuery.resultCache;
+        assertNotNull(resultCache);
+        assertEquals(0, InfinispanRemoteQuery.queryWithWhereStatementOnValuesCached("Lovegood").size());
+        assertEquals(1, resultCache.misses());
+
+        // The continuous query brings the new person to the cached results
+        PersonKey key = new PersonKey("5", "llovegood");
+        InfinispanRemoteQuery.peopleCache.put(key, new Person("Luna", "Lovegood", 1992, "Ottery St Catchpole"));
+        assertEquals(1, awaitCachedResults("Lovegood", 1).size());
+        assertTrue(resultCache.hits() > 0);
+
+        // And removes her when she is gone
+        InfinispanRemoteQuery.peopleCache.remove(key);
+        assertEquals(0, awaitCachedResults("Lovegood", 0).size());
+    }
+
+    @Test
+    public void testQueryResultCacheEvictsLeastRecentlyUsed() {
+        try (QueryResultCache<PersonKey, Person> resultCache = new QueryResultCache<>(InfinispanRemoteQuery.peopleCache, 2)) {
+            String query = "FROM tutorial.Person p where p.lastName = :lastName";
+            resultCache.list(query, Map.of("lastName", "Scamander"));
+            resultCache.list(query, Map.of("lastName", "Lupin"));
+            resultCache.list(query, Map.of("lastName", "Scamander"));
+            // Lupin is the least recently used query, it makes room for Tonks
+            resultCache.list(query, Map.of("lastName", "Tonks"));
+            assertEquals(2, resultCache.size());
+            long misses = resultCache.misses();
+            resultCache.list(query, Map.of("lastName", "Lupin"));
+            assertEquals(misses + 1, resultCache.misses());
+        }
+    }
+
+    private static List<Person> awaitCachedResults(String lastName, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<Person> people = InfinispanRemoteQuery.queryWithWhereStatementOnValuesCached(lastName);
+        while (people.size() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            people = InfinispanRemoteQuery.queryWithWhereStatementOnValuesCached(lastName);
+        }
+        return people;
+    }
+}
@@ -3,6 +3,8 @@ package org.infinispan.tutorial.simple.reactive;
 import org.infinispan.api.Infinispan;
 import org.infinispan.api.mutiny.MutinyCache;
 import org.infinispan.api.sync.SyncCache;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
@@ -17,11 +19,15 @@ public class InfinispanReactiveApi {
 
    static Infinispan infinispan;
    static MutinyCache<String, String> cache;
+   // The reactive API does not register client listeners, the near cache gets its events from a Hot Rod client
+   static RemoteCacheManager remoteCacheManager;
+   static RemoteCache<String, String> remoteCache;
 
    public static void main(String[] args) {
       connect();
       initCache();
       manipulateCacheReactive();
+      readWithNearCache();
       disconnect(false);
    }
 
@@ -30,6 +36,8 @@ public class InfinispanReactiveApi {
       ConfigurationBuilder configurationBuilder = TutorialsConnectorHelper.connectionConfig();
       infinispan = Infinispan.create(configurationBuilder.create());
       cache = infinispan.mutiny().caches().<String, String>get(TUTORIAL_CACHE_NAME).await().atMost(Duration.ofSeconds(10));
+      remoteCacheManager = new RemoteCacheManager(configurationBuilder.build());
+      remoteCache = remoteCacheManager.getCache(TUTORIAL_CACHE_NAME);
    }
 
    static void initCache() {
@@ -52,6 +60,18 @@ public class InfinispanReactiveApi {
       executor.shutdown();
    }
 
+   static String readWithNearCache() {
+      // Reads are served locally after the first one, until the key is written again
+      try (NearCachingMutinyCache<String, String> nearCachingCache = new NearCachingMutinyCache<>(cache, remoteCache, 1000)) {
+         String value = nearCachingCache.set("near", "cached")
+               .chain(ignore -> nearCachingCache.get("near"))
+               .chain(ignore -> nearCachingCache.get("near"))
+               .await().atMost(Duration.ofSeconds(2));
+         System.out.printf("%s -- near cache hits %d, misses %d\n", value, nearCachingCache.hits(), nearCachingCache.misses());
+         return value;
+      }
+   }
+
    private static void clearCache() {
       if (infinispan != null) {
          // Clear the cache in case it already exists from a previous running tutorial
@@ -63,6 +83,9 @@ public class InfinispanReactiveApi {
    }
 
    public static void disconnect(boolean removeCache) {
+      if (remoteCacheManager != null) {
+         remoteCacheManager.stop();
+      }
       if (infinispan != null) {
          if (removeCache) {
             infinispan.sync().caches().remove(TUTORIAL_CACHE_NAME);
@@ -0,0 +1,167 @@
+package org.infinispan.tutorial.simple.reactive;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.smallrye.mutiny.Uni;
+import org.infinispan.api.mutiny.MutinyCache;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryExpired;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved;
+import org.infinispan.client.hotrod.annotation.ClientCacheFailover;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.event.ClientCacheEntryExpiredEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invalidated near cache for reads done through the reactive {@link MutinyCache} API.
+ * <p>
+ * Values read with {@link #get(Object)} are kept in a bounded local cache. Local writes done through this class
+ * invalidate the local copy right away. A Hot Rod client listener, registered on the {@link RemoteCache} of the same
+ * cache, invalidates the keys updated, removed or expired by any other client. The reactive API cannot register
+ * listeners itself. Like the Hot Rod near cache in invalidated mode, the local copy can be briefly stale after a
+ * remote write, until the event reaches the client.
+ * <p>
+ * If the listener cannot be registered there is no way to know about remote writes, so every read goes to the
+ * server. After a failover events may have been missed, so the local cache is cleared.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class NearCachingMutinyCache<K, V> implements AutoCloseable {
+
+   private final MutinyCache<K, V> delegate;
+   private final Cache<K, V> nearCache;
+   private final RemoteCache<K, V> events;
+   private final Invalidations invalidations = new Invalidations();
+   // Incremented on every invalidation, so that a read racing with an invalidation does not cache a stale value
+   private final AtomicLong invalidationSequence = new AtomicLong();
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private volatile boolean enabled;
+
+   /**
+    * @param delegate the reactive cache
+    * @param events   the same cache, from a Hot Rod client, to listen to the writes of other clients
+    */
+   public NearCachingMutinyCache(MutinyCache<K, V> delegate, RemoteCache<K, V> events, long maxEntries) {
+      this.delegate = delegate;
+      this.events = events;
+      this.nearCache = Caffeine.newBuilder().maximumSize(maxEntries).build();
+      try {
+         events.addClientListener(invalidations);
+         enabled = true;
+      } catch (RuntimeException e) {
+         System.out.println("Near caching disabled, unable to listen to cache events: " + e.getMessage());
+      }
+   }
+
+   /**
+    * @return the value from the near cache, or from the server on a near cache miss
+    */
+   public Uni<V> get(K key) {
+      if (enabled) {
+         V value = nearCache.getIfPresent(key);
+         if (value != null) {
+            hits.increment();
+            return Uni.createFrom().item(value);
+         }
+      }
+      misses.increment();
+      long sequence = invalidationSequence.get();
+      return delegate.get(key).invoke(value -> {
+         // Only cache the value if nothing was invalidated while the read was in flight
+         if (value != null && enabled && invalidationSequence.get() == sequence) {
+            nearCache.put(key, value);
+         }
+      });
+   }
+
+   public Uni<Void> set(K key, V value) {
+      invalidate(key);
+      return delegate.set(key, value).invoke(() -> invalidate(key));
+   }
+
+   public Uni<Boolean> remove(K key) {
+      invalidate(key);
+      return delegate.remove(key).invoke(() -> invalidate(key));
+   }
+
+   /**
+    * @return the cache without near caching
+    */
+   public MutinyCache<K, V> delegate() {
+      return delegate;
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   /**
+    * @return true when the value of the key is in the near cache
+    */
+   public boolean isNearCached(K key) {
+      return nearCache.getIfPresent(key) != null;
+   }
+
+   public long nearCacheSize() {
+      return nearCache.estimatedSize();
+   }
+
+   public long hits() {
+      return hits.sum();
+   }
+
+   public long misses() {
+      return misses.sum();
+   }
+
+   private void invalidate(K key) {
+      invalidationSequence.incrementAndGet();
+      nearCache.invalidate(key);
+   }
+
+   private void invalidateAll() {
+      invalidationSequence.incrementAndGet();
+      nearCache.invalidateAll();
+   }
+
+   @Override
+   public void close() {
+      if (enabled) {
+         enabled = false;
+         events.removeClientListener(invalidations);
+      }
+      invalidateAll();
+   }
+
+   @ClientListener
+   public class Invalidations {
+
+      @ClientCacheEntryModified
+      public void entryModified(ClientCacheEntryModifiedEvent<K> event) {
+         invalidate(event.getKey());
+      }
+
+      @ClientCacheEntryRemoved
+      public void entryRemoved(ClientCacheEntryRemovedEvent<K> event) {
+         invalidate(event.getKey());
+      }
+
+      @ClientCacheEntryExpired
+      public void entryExpired(ClientCacheEntryExpiredEvent<K> event) {
+         invalidate(event.getKey());
+      }
+
+      @ClientCacheFailover
+      public void failover(ClientCacheFailoverEvent event) {
+         invalidateAll();
+      }
+   }
+}
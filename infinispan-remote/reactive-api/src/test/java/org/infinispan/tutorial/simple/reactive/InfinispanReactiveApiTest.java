@@ -5,9 +5,13 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper.TUTORIAL_CACHE_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InfinispanReactiveApiTest {
 
@@ -32,4 +36,30 @@ public class InfinispanReactiveApiTest {
                 .get(TUTORIAL_CACHE_NAME).get("hello"));
     }
 
+    @Test
+    public void testReactiveNearCache() {
+        InfinispanReactiveApi.initCache();
+        assertEquals("cached", InfinispanReactiveApi.readWithNearCache());
+    }
+
+    @Test
+    public void testRemoteWriteInvalidatesNearCache() throws Exception {
+        InfinispanReactiveApi.initCache();
+        try (NearCachingMutinyCache<String, String> nearCachingCache =
+                     new NearCachingMutinyCache<>(InfinispanReactiveApi.cache, InfinispanReactiveApi.remoteCache, 1000)) {
+            assertTrue(nearCachingCache.isEnabled());
+            nearCachingCache.set("shared", "v1").await().atMost(Duration.ofSeconds(2));
+            assertEquals("v1", nearCachingCache.get("shared").await().atMost(Duration.ofSeconds(2)));
+            assertTrue(nearCachingCache.isNearCached("shared"));
+
+            // Another client writes the key, the event removes the local copy
+            InfinispanReactiveApi.remoteCache.put("shared", "v2");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (nearCachingCache.isNearCached("shared") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertFalse(nearCachingCache.isNearCached("shared"));
+            assertEquals("v2", nearCachingCache.get("shared").await().atMost(Duration.ofSeconds(2)));
+        }
+    }
 }
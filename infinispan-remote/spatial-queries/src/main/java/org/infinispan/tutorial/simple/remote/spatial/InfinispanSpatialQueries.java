@@ -1,7 +1,5 @@
 package org.infinispan.tutorial.simple.remote.spatial;
 
-import static org.infinispan.query.remote.client.ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME;
-
 import java.net.URI;
 import java.util.List;
 
@@ -11,7 +9,7 @@ import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
 import org.infinispan.commons.api.query.Query;
 import org.infinispan.commons.api.query.QueryResult;
 import org.infinispan.commons.api.query.geo.LatLng;
-import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 import org.infinispan.tutorial.simple.connect.TutorialsConnectorHelper;
 
 /**
@@ -214,14 +212,9 @@ public class InfinispanSpatialQueries {
       TutorialsConnectorHelper.stop(client);
    }
 
-   private static void addProtoSchema(RemoteCacheManager cacheManager) {
-      // Retrieve metadata cache
-      RemoteCache<String, String> metadataCache =
-            cacheManager.getCache(PROTOBUF_METADATA_CACHE_NAME);
-
-      // Define the new schema on the server too
-      GeneratedSchema schema = new TutorialSchemaImpl();
-      metadataCache.put(schema.getProtoFileName(), schema.getProtoFile());
+   static SchemaRegistry.Result addProtoSchema(RemoteCacheManager cacheManager) {
+      // Define the new schema on the server too, unless the server already has the same schema
+      return SchemaRegistry.register(cacheManager, new TutorialSchemaImpl());
    }
 
    record RestaurantDTO(String name, Double distance){}
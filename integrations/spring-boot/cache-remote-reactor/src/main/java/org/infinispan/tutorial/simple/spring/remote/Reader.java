@@ -2,10 +2,8 @@ package org.infinispan.tutorial.simple.spring.remote;
 
 import java.util.Random;
 
-import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
-import org.infinispan.protostream.GeneratedSchema;
-import org.infinispan.query.remote.client.ProtobufMetadataManagerConstants;
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -23,10 +21,8 @@ public class Reader {
       this.repository = repository;
       random = new Random();
       this.remoteCacheManager = remoteCacheManager;
-      // Upload the generated schema in the server
-      RemoteCache<String, String> metadataCache = this.remoteCacheManager.getCache(ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME);
-      GeneratedSchema schema = new BasquesNamesSchemaBuilderImpl();
-      metadataCache.put(schema.getProtoFileName(), schema.getProtoFile());
+      // Upload the generated schema in the server, unless the server already has the same schema
+      SchemaRegistry.register(this.remoteCacheManager, new BasquesNamesSchemaBuilderImpl());
    }
 
    @Scheduled(fixedDelay = 10000)
@@ -4,8 +4,7 @@ import java.security.SecureRandom;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
-import org.infinispan.protostream.GeneratedSchema;
-import org.infinispan.query.remote.client.ProtobufMetadataManagerConstants;
+import org.infinispan.tutorial.simple.connect.SchemaRegistry;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -24,11 +23,8 @@ public class Reader {
 		this.repository = repository;
 		random = new SecureRandom();
 		this.remoteCacheManager = remoteCacheManager;
-		// Upload the generated schema in the server
-		RemoteCache<String, String> metadataCache = this.remoteCacheManager
-				.getCache(ProtobufMetadataManagerConstants.PROTOBUF_METADATA_CACHE_NAME);
-		GeneratedSchema schema = new BasquesNamesSchemaBuilderImpl();
-		metadataCache.put(schema.getProtoFileName(), schema.getProtoFile());
+		// Upload the generated schema in the server, unless the server already has the same schema
+		SchemaRegistry.register(this.remoteCacheManager, new BasquesNamesSchemaBuilderImpl());
 	}
 
 	@Scheduled(fixedDelay = 10000)
@@ -0,0 +1,204 @@
+package org.infinispan.tutorial.simple.counter.utils;
+
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.StrongCounter;
+import org.infinispan.counter.exception.CounterOutOfBoundsException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates increments of a {@link StrongCounter} in memory and adds them to the counter in batches.
+ * <p>
+ * Increments go to a {@link LongAdder}, so many threads can count without contention and without a cluster or
+ * server operation. The accumulated delta is added to the counter with a single {@code addAndGet} every
+ * {@code maxStaleness}, or soon after it reaches {@code flushThreshold}. The counter never lags behind the local
+ * increments by more than one of these bounds, plus the time of the flush itself.
+ * <p>
+ * Summing the {@link LongAdder} reads all its cells, so small increments check the threshold only once every
+ * {@value #THRESHOLD_CHECK_INTERVAL} calls on average. The threshold may be overshot by about as many increments per
+ * thread.
+ * <p>
+ * Flushes run one at a time. A delta that could not be added is kept and added by the next flush, except when a
+ * bounded counter reaches its bound: the counter is moved to the bound with a compare-and-swap and only the delta
+ * beyond the bound is discarded, as if the increments had been added one by one. {@link #close()} waits for the
+ * increments in progress and flushes what is left, so no increment is lost on a clean shutdown.
+ * <p>
+ * It works with embedded and remote counters alike.
+ */
+public class CounterAccumulator implements AutoCloseable {
+
+   public static final Duration DEFAULT_MAX_STALENESS = Duration.ofMillis(100);
+   public static final long DEFAULT_FLUSH_THRESHOLD = 10_000;
+   static final int THRESHOLD_CHECK_INTERVAL = 64;
+
+   private final StrongCounter counter;
+   private final long flushThreshold;
+   private final LongAdder pending = new LongAdder();
+   private final LongAdder flushes = new LongAdder();
+   // Threads inside add(), close() waits for them before the last flush
+   private final LongAdder adding = new LongAdder();
+   private final AtomicBoolean flushRequested = new AtomicBoolean();
+   private final ScheduledExecutorService scheduler;
+   private CompletableFuture<Long> lastFlush = CompletableFuture.completedFuture(null);
+   // Value of the counter after the last successful flush, null until the counter has been read once
+   private volatile Long lastValue;
+   private volatile boolean closed;
+
+   public CounterAccumulator(StrongCounter counter) {
+      this(counter, DEFAULT_MAX_STALENESS, DEFAULT_FLUSH_THRESHOLD);
+   }
+
+   public CounterAccumulator(StrongCounter counter, Duration maxStaleness, long flushThreshold) {
+      this.counter = counter;
+      this.flushThreshold = flushThreshold;
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread thread = new Thread(r, "counter-accumulator-" + counter.getName());
+         thread.setDaemon(true);
+         return thread;
+      });
+      long period = maxStaleness.toNanos();
+      scheduler.scheduleAtFixedRate(this::flush, period, period, TimeUnit.NANOSECONDS);
+   }
+
+   public void increment() {
+      add(1);
+   }
+
+   public void add(long delta) {
+      adding.increment();
+      try {
+         if (closed) {
+            throw new IllegalStateException("Accumulator for counter " + counter.getName() + " is closed");
+         }
+         pending.add(delta);
+      } finally {
+         adding.decrement();
+      }
+      if (shouldCheckThreshold(delta) && Math.abs(pending.sum()) >= flushThreshold
+            && flushRequested.compareAndSet(false, true)) {
+         try {
+            scheduler.execute(() -> {
+               flushRequested.set(false);
+               flush();
+            });
+         } catch (RejectedExecutionException e) {
+            // Closed concurrently, close() flushes the pending increments
+            flushRequested.set(false);
+         }
+      }
+   }
+
+   private boolean shouldCheckThreshold(long delta) {
+      return Math.abs(delta) >= flushThreshold / THRESHOLD_CHECK_INTERVAL
+            || ThreadLocalRandom.current().nextInt(THRESHOLD_CHECK_INTERVAL) == 0;
+   }
+
+   /**
+    * Adds the accumulated delta to the counter.
+    *
+    * @return a future with the value of the counter after the flush, or with the value after the previous flush when
+    * there was nothing to add
+    */
+   public synchronized CompletableFuture<Long> flush() {
+      // Chain the flushes, so that only one update of the counter is in progress
+      lastFlush = lastFlush.exceptionally(t -> null).thenCompose(ignore -> addPending());
+      return lastFlush;
+   }
+
+   private CompletableFuture<Long> addPending() {
+      long delta = pending.sum();
+      if (delta == 0) {
+         // Nothing to add, avoid a round trip to read the counter on every idle period
+         Long value = lastValue;
+         return value != null ? CompletableFuture.completedFuture(value) : counter.getValue().thenApply(this::seen);
+      }
+      // Subtract what is sent instead of resetting, so that concurrent increments are kept for the next flush
+      pending.add(-delta);
+      return counter.addAndGet(delta)
+            .handle((value, throwable) -> {
+               if (throwable == null) {
+                  return CompletableFuture.completedFuture(value);
+               }
+               if (unwrap(throwable) instanceof CounterOutOfBoundsException) {
+                  // Add the part of the delta that fits, as the increments sent one by one would have
+                  return addUpToBound(delta, counter.getConfiguration());
+               }
+               return CompletableFuture.<Long>failedFuture(throwable);
+            })
+            .thenCompose(update -> update)
+            .handle((value, throwable) -> {
+               if (throwable == null) {
+                  flushes.increment();
+                  return seen(value);
+               }
+               pending.add(delta);
+               throw new CompletionException(unwrap(throwable));
+            });
+   }
+
+   private CompletableFuture<Long> addUpToBound(long delta, CounterConfiguration configuration) {
+      return counter.getValue().thenCompose(value -> swapUpToBound(value, delta, configuration));
+   }
+
+   private CompletableFuture<Long> swapUpToBound(long value, long delta, CounterConfiguration configuration) {
+      long target = Math.max(configuration.lowerBound(), Math.min(configuration.upperBound(), value + delta));
+      return counter.compareAndSwap(value, target).thenCompose(previous -> previous == value
+            ? CompletableFuture.completedFuture(target)
+            : swapUpToBound(previous, delta, configuration));
+   }
+
+   private static Throwable unwrap(Throwable throwable) {
+      return throwable instanceof CompletionException ? throwable.getCause() : throwable;
+   }
+
+   private Long seen(Long value) {
+      lastValue = value;
+      return value;
+   }
+
+   /**
+    * @return the increments not yet added to the counter
+    */
+   public long pending() {
+      return pending.sum();
+   }
+
+   /**
+    * @return the number of successful updates of the counter
+    */
+   public long flushes() {
+      return flushes.sum();
+   }
+
+   public StrongCounter counter() {
+      return counter;
+   }
+
+   /**
+    * Stops the periodic flush and adds the remaining increments to the counter.
+    */
+   @Override
+   public void close() {
+      closed = true;
+      scheduler.shutdown();
+      try {
+         scheduler.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      // An add() that saw the accumulator open may not have added its delta yet
+      while (adding.sum() != 0) {
+         Thread.onSpinWait();
+      }
+      flush().join();
+   }
+}
@@ -0,0 +1,260 @@
+package org.infinispan.tutorial.simple.counter.utils;
+
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterManager;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.api.Storage;
+import org.infinispan.counter.api.SyncStrongCounter;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket rate limiter shared by every client of a cluster, where each client leases blocks of permits.
+ * <p>
+ * The bucket is a {@code BOUNDED_STRONG} counter between zero and the capacity. A client takes a block of permits
+ * from the bucket with a compare-and-swap and serves {@link #tryAcquire()} from that block with a local atomic
+ * operation. Only when the block is used up does it lease a new one. The size of a block follows the request rate of
+ * the client, so that a block lasts about one lease window, and the permits a client did not use within a lease
+ * window are returned to the bucket.
+ * <p>
+ * The bucket is refilled every refill period. The clients race to advance a second counter holding the last refilled
+ * period, and the winner adds the permits of the elapsed periods, up to the capacity. A client that finds the bucket
+ * empty rejects the following requests locally until its next refill, without reading the bucket again.
+ * <p>
+ * Leasing trades precision for fewer counter operations: permits leased by a client are not available to the others
+ * until they are used or returned.
+ */
+public class LeasedRateLimiter implements AutoCloseable {
+
+   public static final Duration DEFAULT_REFILL_PERIOD = Duration.ofMillis(100);
+   public static final Duration DEFAULT_LEASE_WINDOW = Duration.ofMillis(100);
+
+   private final SyncStrongCounter bucket;
+   private final SyncStrongCounter refilledPeriod;
+   private final long capacity;
+   private final long permitsPerSecond;
+   private final long refillPeriodMillis;
+   private final long leaseWindowNanos;
+   private final long maxLeaseSize;
+   private final ScheduledExecutorService scheduler;
+   private final AtomicLong localPermits = new AtomicLong();
+   private final LongAdder acquired = new LongAdder();
+   private final LongAdder rejected = new LongAdder();
+   private final LongAdder leases = new LongAdder();
+   private final LongAdder returnedPermits = new LongAdder();
+   private final LongAdder casFailures = new LongAdder();
+   private volatile long leaseSize = 1;
+   // Refill period in which the bucket was found empty
+   private volatile long emptyInPeriod = -1;
+   // Guarded by this
+   private long lastLeaseNanos = System.nanoTime();
+   private long acquiredAtLastLease;
+
+   public LeasedRateLimiter(CounterManager counterManager, String name, long capacity, long permitsPerSecond) {
+      this(counterManager, name, capacity, permitsPerSecond, DEFAULT_REFILL_PERIOD, DEFAULT_LEASE_WINDOW);
+   }
+
+   public LeasedRateLimiter(CounterManager counterManager, String name, long capacity, long permitsPerSecond,
+                            Duration refillPeriod, Duration leaseWindow) {
+      this.capacity = capacity;
+      this.permitsPerSecond = permitsPerSecond;
+      this.refillPeriodMillis = refillPeriod.toMillis();
+      this.leaseWindowNanos = leaseWindow.toNanos();
+      // A single client never holds more than a tenth of the bucket
+      this.maxLeaseSize = Math.max(1, capacity / 10);
+
+      // Defining a counter that already exists does nothing, every client can call it
+      counterManager.defineCounter(name, CounterConfiguration.builder(CounterType.BOUNDED_STRONG)
+            .lowerBound(0)
+            .upperBound(capacity)
+            .initialValue(capacity)
+            .storage(Storage.VOLATILE)
+            .build());
+      counterManager.defineCounter(name + "-refilled-period", CounterConfiguration.builder(CounterType.UNBOUNDED_STRONG)
+            .initialValue(currentPeriod())
+            .storage(Storage.VOLATILE)
+            .build());
+      this.bucket = counterManager.getStrongCounter(name).sync();
+      this.refilledPeriod = counterManager.getStrongCounter(name + "-refilled-period").sync();
+
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread thread = new Thread(r, "rate-limiter-" + name);
+         thread.setDaemon(true);
+         return thread;
+      });
+      scheduler.scheduleAtFixedRate(this::refill, refillPeriodMillis, refillPeriodMillis, TimeUnit.MILLISECONDS);
+      scheduler.scheduleAtFixedRate(this::returnExpiredLease, leaseWindowNanos, leaseWindowNanos, TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * @return {@code true} if a permit was granted, {@code false} if the bucket is empty
+    */
+   public boolean tryAcquire() {
+      if (takeLocalPermit()) {
+         return true;
+      }
+      if (emptyInPeriod == currentPeriod()) {
+         // The bucket was empty and has not been refilled since
+         rejected.increment();
+         return false;
+      }
+      return leaseAndTakePermit();
+   }
+
+   private boolean takeLocalPermit() {
+      long permits;
+      do {
+         permits = localPermits.get();
+         if (permits <= 0) {
+            return false;
+         }
+      } while (!localPermits.compareAndSet(permits, permits - 1));
+      acquired.increment();
+      return true;
+   }
+
+   private synchronized boolean leaseAndTakePermit() {
+      // Another thread may have leased while this one was waiting
+      if (takeLocalPermit()) {
+         return true;
+      }
+      long period = currentPeriod();
+      if (emptyInPeriod == period) {
+         rejected.increment();
+         return false;
+      }
+      long leased = lease(nextLeaseSize());
+      if (leased == 0) {
+         emptyInPeriod = period;
+         rejected.increment();
+         return false;
+      }
+      // Measure the rate from the last successful lease, rejected requests do not restart the window
+      lastLeaseNanos = System.nanoTime();
+      acquiredAtLastLease = acquired.sum();
+      localPermits.addAndGet(leased - 1);
+      acquired.increment();
+      return true;
+   }
+
+   private long nextLeaseSize() {
+      // Size the lease to serve the recent request rate for one lease window
+      long now = System.nanoTime();
+      long acquiredNow = acquired.sum();
+      double rate = (acquiredNow - acquiredAtLastLease) / (double) Math.max(1, now - lastLeaseNanos);
+      leaseSize = Math.max(1, Math.min(maxLeaseSize, (long) Math.ceil(rate * leaseWindowNanos)));
+      return leaseSize;
+   }
+
+   private long lease(long size) {
+      long available = bucket.getValue();
+      while (available > 0) {
+         long take = Math.min(size, available);
+         long previous = bucket.compareAndSwap(available, available - take);
+         if (previous == available) {
+            leases.increment();
+            return take;
+         }
+         casFailures.increment();
+         available = previous;
+      }
+      return 0;
+   }
+
+   private synchronized void returnExpiredLease() {
+      if (System.nanoTime() - lastLeaseNanos >= leaseWindowNanos) {
+         returnPermits();
+      }
+   }
+
+   private void returnPermits() {
+      long unused = localPermits.getAndSet(0);
+      if (unused > 0) {
+         returnedPermits.add(unused);
+         addToBucket(unused);
+      }
+   }
+
+   private void refill() {
+      long period = currentPeriod();
+      long last = refilledPeriod.getValue();
+      if (period > last && refilledPeriod.compareAndSet(last, period)) {
+         // This client won the race, add the permits of the periods elapsed since the last refill
+         addToBucket(Math.min(capacity, permitsUntil(period) - permitsUntil(last)));
+      }
+      // The bucket may have been refilled, by this client or another one, so try to lease again
+      emptyInPeriod = -1;
+   }
+
+   private void addToBucket(long permits) {
+      // Add what fits below the capacity, retrying when another client changed the bucket meanwhile
+      long available = bucket.getValue();
+      while (available < capacity) {
+         long previous = bucket.compareAndSwap(available, Math.min(capacity, available + permits));
+         if (previous == available) {
+            return;
+         }
+         casFailures.increment();
+         available = previous;
+      }
+   }
+
+   private long permitsUntil(long period) {
+      // Computed from the start of time, so that fractions of permits are not lost between refills
+      return period * refillPeriodMillis / 1000 * permitsPerSecond
+            + period * refillPeriodMillis % 1000 * permitsPerSecond / 1000;
+   }
+
+   private long currentPeriod() {
+      return System.currentTimeMillis() / refillPeriodMillis;
+   }
+
+   public long acquired() {
+      return acquired.sum();
+   }
+
+   public long rejected() {
+      return rejected.sum();
+   }
+
+   public long leases() {
+      return leases.sum();
+   }
+
+   public long returnedPermits() {
+      return returnedPermits.sum();
+   }
+
+   public long casFailures() {
+      return casFailures.sum();
+   }
+
+   public long leaseSize() {
+      return leaseSize;
+   }
+
+   public long localPermits() {
+      return localPermits.get();
+   }
+
+   /**
+    * Stops the refills and returns the unused permits to the bucket.
+    */
+   @Override
+   public void close() {
+      scheduler.shutdown();
+      try {
+         scheduler.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      synchronized (this) {
+         returnPermits();
+      }
+   }
+}